@@ -0,0 +1,31 @@
+/** Class representing one job of a batch: schedule the tasks of an input file
+ *  on m cores and write the schedule to an output file.
+ */
+class BatchJob {
+	private final String input;		//the task file
+	private final String output;		//the schedule file, without the .txt extension
+	private final int cores;		//the number of cores
+
+	public BatchJob(String input, String output, int m){
+		this.input = input;
+		this.output = output;
+		this.cores = m;
+	}
+
+	/* gets the task file*/
+	public String getInput(){
+		return input;
+	}
+	/* gets the schedule file, without the .txt extension*/
+	public String getOutput(){
+		return output;
+	}
+	/* gets the number of cores*/
+	public int getCores(){
+		return cores;
+	}
+
+	public String toString(){
+		return input + " -> " + output + " on " + cores + " cores";
+	}
+}
@@ -0,0 +1,104 @@
+/** Class representing the result of one job of a batch: either a summary of the
+ *  schedule that was constructed, with its overloaded window if it is not feasible,
+ *  or the exception that stopped the job.
+ *
+ *  Only the summary is kept, not the schedule or its task set, so a batch of
+ *  thousands of files holds a few numbers per job until it returns.
+ */
+class BatchResult {
+	private final BatchJob job;		//the job
+	private final int tasks;		//the number of tasks, or 0 if the job failed
+	private final boolean feasible;		//whether a feasible schedule was constructed and written
+	private final int windowTasks;		//the tasks which must run in the overloaded window, or 0
+	private final long windowStart;		//the start of the overloaded window, or 0
+	private final long windowEnd;		//the end of the overloaded window, or 0
+	private final long capacity;		//the room in the overloaded window, or 0
+	private final Exception error;		//the exception which stopped the job, or null
+	private final long nanos;		//the time taken by the job
+
+	/** Creates the result of a job which constructed the given schedule, summarizing
+	 *  overload, the overloaded window of an infeasible schedule, or null.
+	 */
+	BatchResult(BatchJob job, Schedule schedule, Feasibility overload, long nanos){
+		this.job = job;
+		this.tasks = schedule.getTasks().size();
+		this.feasible = schedule.isFeasible();
+		this.windowTasks = (overload == null) ? 0 : overload.getWindowTasks().length;
+		this.windowStart = (overload == null) ? 0 : overload.getWindowStart();
+		this.windowEnd = (overload == null) ? 0 : overload.getWindowEnd();
+		this.capacity = (overload == null) ? 0 : overload.getCapacity();
+		this.error = null;
+		this.nanos = nanos;
+	}
+
+	/** Creates the result of a job stopped by the given exception.
+	 */
+	BatchResult(BatchJob job, Exception error, long nanos){
+		this.job = job;
+		this.tasks = 0;
+		this.feasible = false;
+		this.windowTasks = 0;
+		this.windowStart = 0;
+		this.windowEnd = 0;
+		this.capacity = 0;
+		this.error = error;
+		this.nanos = nanos;
+	}
+
+	/* gets the job*/
+	public BatchJob getJob(){
+		return job;
+	}
+	/* returns whether the job failed with an exception*/
+	public boolean isError(){
+		return error != null;
+	}
+	/* returns whether a feasible schedule was constructed and written*/
+	public boolean isFeasible(){
+		return feasible;
+	}
+	/* gets the number of tasks scheduled, 0 if the job failed*/
+	public int getTasks(){
+		return tasks;
+	}
+	/* gets the number of tasks which must run in the overloaded window, 0 unless the schedule is infeasible*/
+	public int getWindowTasks(){
+		return windowTasks;
+	}
+	/* gets the start of the overloaded window*/
+	public long getWindowStart(){
+		return windowStart;
+	}
+	/* gets the end of the overloaded window*/
+	public long getWindowEnd(){
+		return windowEnd;
+	}
+	/* gets the room in the overloaded window*/
+	public long getCapacity(){
+		return capacity;
+	}
+	/* gets the exception which stopped the job, or null*/
+	public Exception getError(){
+		return error;
+	}
+	/* gets the time taken by the job in nanoseconds*/
+	public long getNanos(){
+		return nanos;
+	}
+
+	public String toString(){
+		String result;
+		if(error instanceof TaskFormatException){
+			TaskFormatException e = (TaskFormatException) error;
+			result = "improperly formatted at line " + e.getLine() + ", column " + e.getColumn() + ": " + e.getMessage();
+		}
+		else if(error != null)
+			result = "error: " + error;
+		else if(feasible)
+			result = "feasible";
+		else
+			result = "infeasible, " + windowTasks + " tasks must run in [" + windowStart + ", " + windowEnd
+					+ "), which has room for " + capacity;
+		return job + ": " + result + String.format(" (%.1f ms)", nanos / 1e6);
+	}
+}
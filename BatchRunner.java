@@ -0,0 +1,90 @@
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/** Class running many independent scheduling jobs concurrently.
+ *
+ *  Each job reads, schedules and writes through TaskScheduler.scheduleFile, which
+ *  keeps no shared state and replaces its output file atomically, so jobs can run
+ *  on any number of threads. Failures are reported per job instead of stopping
+ *  the batch.
+ *
+ *  Usage: java BatchRunner inputDir outputDir m [threads]
+ */
+public class BatchRunner {
+	/** Runs the jobs on a pool of the given number of threads and returns their
+	 *  results in the order of the jobs.
+	 */
+	static List<BatchResult> run(List<BatchJob> jobs, int threads) throws InterruptedException{
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, jobs.size())));
+		try{
+			List<Future<BatchResult>> futures = new ArrayList<Future<BatchResult>>(jobs.size());
+			for(BatchJob job : jobs)
+				futures.add(executor.submit(() -> runJob(job)));
+			List<BatchResult> results = new ArrayList<BatchResult>(jobs.size());
+			for(Future<BatchResult> future : futures){
+				try{
+					results.add(future.get());
+				}
+				catch(ExecutionException executionException){
+					//runJob reports exceptions in its result, so only errors end up here
+					throw new IllegalStateException(executionException.getCause());
+				}
+			}
+			return results;
+		}
+		finally{
+			executor.shutdownNow();
+		}
+	}
+
+	/** Runs one job and returns its result, which keeps a summary of the schedule
+	 *  so the task set can be collected as soon as the job ends.
+	 */
+	static BatchResult runJob(BatchJob job){
+		long start = System.nanoTime();
+		try{
+			Schedule schedule = TaskScheduler.scheduleFile(job.getInput(), job.getOutput(), job.getCores(), Engine.AUTO);
+			Feasibility overload = schedule.isFeasible() ? null : TaskScheduler.overloadedWindow(schedule);
+			return new BatchResult(job, schedule, overload, System.nanoTime() - start);
+		}
+		catch(IOException | TaskFormatException | RuntimeException exception){
+			return new BatchResult(job, exception, System.nanoTime() - start);
+		}
+	}
+
+	/** Returns a job for each .txt file of inputDir, writing its schedule to the
+	 *  file of the same name in outputDir.
+	 */
+	static List<BatchJob> jobsInDirectory(String inputDir, String outputDir, int m) throws IOException{
+		List<BatchJob> jobs = new ArrayList<BatchJob>();
+		try(DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(inputDir), "*.txt")){
+			for(Path file : files){
+				String name = file.getFileName().toString();
+				String output = Paths.get(outputDir, name.substring(0, name.length() - 4)).toString();
+				jobs.add(new BatchJob(file.toString(), output, m));
+			}
+		}
+		jobs.sort((j1, j2) -> j1.getInput().compareTo(j2.getInput()));
+		return jobs;
+	}
+
+	public static void main(String[] args) throws Exception{
+		if(args.length < 3 || Integer.parseInt(args[2]) < 1){
+			System.err.println("Usage: java BatchRunner inputDir outputDir m [threads]");
+			return;
+		}
+		int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+		List<BatchResult> results = run(jobsInDirectory(args[0], args[1], Integer.parseInt(args[2])), threads);
+		for(BatchResult result : results)
+			System.out.println(result);
+	}
+}
@@ -0,0 +1,72 @@
+import java.util.Arrays;
+
+/** Class representing a bucket queue of task indices.
+ *
+ *  Task i is ordered by keys[i], a column of a TaskSet whose values lie in
+ *  [minKey, minKey + buckets). There is one FIFO bucket per key, kept as an
+ *  intrusive linked list through next[], so tasks with equal keys come out in
+ *  the order they were offered. offer is O(1); peek and poll move a cursor to
+ *  the first non-empty bucket, which only moves back when a smaller key is
+ *  offered, so they are amortized O(1) over a bounded key range.
+ */
+class BucketQueue implements TaskQueue {
+	private final long[] keys;		//the key of each task
+	private final long minKey;		//the key of the first bucket
+	private final int[] head;		//the first task of each bucket, or -1
+	private final int[] tail;		//the last task of each bucket, or -1
+	private final int[] next;		//the task after each task in its bucket, or -1
+	private int cursor;		//no bucket before cursor is non-empty
+	private int size = 0;		//the number of tasks in the queue
+
+	public BucketQueue(long[] keys, int tasks, long minKey, int buckets){
+		this.keys = keys;
+		this.minKey = minKey;
+		head = new int[buckets];
+		tail = new int[buckets];
+		next = new int[tasks];
+		Arrays.fill(head, -1);
+		cursor = buckets;
+	}
+
+	/** Returns whether a bucket queue of the keys from minKey to maxKey fits in
+	 *  maxBuckets buckets.
+	 */
+	static boolean fits(long minKey, long maxKey, long maxBuckets){
+		long buckets = maxKey - minKey + 1;
+		return buckets > 0 && buckets <= maxBuckets && buckets <= Integer.MAX_VALUE - 8;
+	}
+
+	public void offer(int i){
+		int b = (int) (keys[i] - minKey);
+		next[i] = -1;
+		if(head[b] < 0)
+			head[b] = i;
+		else
+			next[tail[b]] = i;
+		tail[b] = i;
+		if(b < cursor)
+			cursor = b;
+		++size;
+	}
+
+	public int peek(){
+		if(size == 0)
+			return -1;
+		while(head[cursor] < 0)
+			++cursor;
+		return head[cursor];
+	}
+
+	public int poll(){
+		int i = peek();
+		if(i >= 0){
+			head[cursor] = next[i];
+			--size;
+		}
+		return i;
+	}
+
+	public int size(){
+		return size;
+	}
+}
@@ -0,0 +1,62 @@
+/** Class representing a schedule whose entries are stored in a ChunkedSequence, so
+ *  that a range of them can be replaced without moving the entries after it, as
+ *  IncrementalScheduler does on every repair.
+ *
+ *  Unlike a Schedule, it is not appended to by the schedulers: its entries only
+ *  change by splice, a repair's worth of entries at a time.
+ */
+class ChunkedSchedule implements ScheduleView {
+	private final TaskSet tasks;		//the scheduled task set
+	private final int cores;		//the number of cores
+	private final ChunkedSequence entries = new ChunkedSequence(true);		//the tasks with their start times and cores
+	private int missedTask = -1;		//the task which misses its deadline, or -1
+
+	public ChunkedSchedule(TaskSet tasks, int m){
+		this.tasks = tasks;
+		this.cores = m;
+	}
+
+	/** Replaces the entries from position from to position to - 1 by the first count
+	 *  entries of the given arrays, the later entries following them.
+	 */
+	void splice(int from, int to, int[] order, long[] start, int[] core, int count){
+		entries.replace(from, to, order, start, core, count);
+	}
+	/* records that task i misses its deadline, or -1 if none does*/
+	void setMissedTask(int i){
+		missedTask = i;
+	}
+
+	/* returns whether every task meets its deadline*/
+	public boolean isFeasible(){
+		return missedTask < 0;
+	}
+	/* gets the task which misses its deadline, or -1 if the schedule is feasible*/
+	public int getMissedTask(){
+		return missedTask;
+	}
+	/* gets the scheduled task set*/
+	public TaskSet getTasks(){
+		return tasks;
+	}
+	/* gets the number of cores*/
+	public int getCores(){
+		return cores;
+	}
+	/* gets the number of scheduled tasks*/
+	public int size(){
+		return entries.size();
+	}
+	/* gets the i-th scheduled task*/
+	public int getTask(int i){
+		return entries.getTask(i);
+	}
+	/* gets the start time of the i-th scheduled task*/
+	public long getStart(int i){
+		return entries.getStart(i);
+	}
+	/* gets the core of the i-th scheduled task*/
+	public int getCore(int i){
+		return entries.getCore(i);
+	}
+}
@@ -0,0 +1,296 @@
+import java.util.Arrays;
+
+/** Class storing a sequence of task indices, each with a start time and a core if the
+ *  sequence is timed, in chunks of at most CHUNK_SIZE entries.
+ *
+ *  Replacing a range of entries by others splits the chunks at the two ends of the
+ *  range, drops the chunks in between and fills new chunks; at each of the two seams
+ *  the neighbouring chunks are merged if they fit in one, or else evened out if one
+ *  is less than half full, so every chunk but the last stays at least half full. A
+ *  replacement copies the new entries, a few chunks and the directory of the
+ *  n / CHUNK_SIZE chunks, but never the entries after the range. Looking up a
+ *  position is a binary search over the directory, skipped when it is in the chunk
+ *  looked up last or the one after it, so a sweep over the positions costs O(1) per
+ *  entry.
+ */
+class ChunkedSequence {
+	static final int CHUNK_SIZE = 4096;		//the most entries in a chunk
+
+	private final boolean timed;		//whether the entries have a start time and a core
+	private int[][] tasks = new int[4][];		//the tasks of each chunk
+	private long[][] starts;		//the start times of each chunk, or null if not timed
+	private int[][] cores;		//the cores of each chunk, or null if not timed
+	private int[] counts = new int[4];		//the number of entries in each chunk
+	private int[] firsts = new int[4];		//the position of the first entry of each chunk
+	private int chunks = 0;		//the number of chunks
+	private int size = 0;		//the number of entries
+	private int finger = 0;		//the chunk of the position looked up last
+
+	public ChunkedSequence(boolean timed){
+		this.timed = timed;
+		if(timed){
+			starts = new long[4][];
+			cores = new int[4][];
+		}
+	}
+
+	public int size(){
+		return size;
+	}
+
+	/* gets the task at the given position*/
+	public int getTask(int position){
+		int c = chunk(position);
+		return tasks[c][position - firsts[c]];
+	}
+	/* gets the start time at the given position*/
+	public long getStart(int position){
+		int c = chunk(position);
+		return starts[c][position - firsts[c]];
+	}
+	/* gets the core at the given position*/
+	public int getCore(int position){
+		int c = chunk(position);
+		return cores[c][position - firsts[c]];
+	}
+
+	/** Inserts task i at the given position, moving the later entries back by one.
+	 */
+	public void insert(int position, int i){
+		int c = split(position);
+		if(c > 0 && counts[c - 1] < CHUNK_SIZE){
+			--c;		//appends to the chunk before the position
+		}
+		else{
+			open(c, 1);
+			allocate(c);
+		}
+		tasks[c][counts[c]++] = i;
+		++size;
+		seam(c);
+		seam(c - 1);
+		renumber(c - 1);
+	}
+
+	/** Removes the entry at the given position, moving the later entries up by one.
+	 */
+	public void remove(int position){
+		replace(position, position + 1, null, null, null, 0);
+	}
+
+	/** Replaces the entries from position from to position to - 1 by the first count
+	 *  entries of the given arrays, of which start and core are ignored unless the
+	 *  sequence is timed.
+	 */
+	public void replace(int from, int to, int[] task, long[] start, int[] core, int count){
+		if(from < 0 || to < from || to > size)
+			throw new IndexOutOfBoundsException("range [" + from + ", " + to + ") of " + size + " entries");
+		int a = split(from);
+		int b = split(to);
+		//drops the chunks of the range and opens the ones of the new entries
+		int fresh = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		int dropped = b - a;
+		close(a + Math.min(dropped, fresh), dropped - Math.min(dropped, fresh));
+		open(a + Math.min(dropped, fresh), fresh - Math.min(dropped, fresh));
+		for(int k = 0; k < fresh; ++k){
+			int c = a + k;
+			int n = Math.min(CHUNK_SIZE, count - k * CHUNK_SIZE);
+			if(tasks[c] == null)
+				allocate(c);
+			System.arraycopy(task, k * CHUNK_SIZE, tasks[c], 0, n);
+			if(timed){
+				System.arraycopy(start, k * CHUNK_SIZE, starts[c], 0, n);
+				System.arraycopy(core, k * CHUNK_SIZE, cores[c], 0, n);
+			}
+			counts[c] = n;
+		}
+		size += count - (to - from);
+		seam(a + fresh - 1);
+		seam(a - 1);
+		renumber(a - 1);
+	}
+
+	/** Returns the chunk of the given position, which must be less than size().
+	 */
+	private int chunk(int position){
+		int c = finger;
+		if(c < chunks && firsts[c] <= position){
+			if(position < firsts[c] + counts[c])
+				return c;
+			if(c + 1 < chunks && position < firsts[c + 1] + counts[c + 1])
+				return finger = c + 1;
+		}
+		int low = 0;
+		int high = chunks - 1;
+		while(low < high){
+			int mid = (low + high + 1) >>> 1;
+			if(firsts[mid] <= position)
+				low = mid;
+			else
+				high = mid - 1;
+		}
+		return finger = low;
+	}
+
+	/** Splits the chunk holding the given position so that a chunk starts at it, and
+	 *  returns that chunk, or the number of chunks if the position is size().
+	 */
+	private int split(int position){
+		if(position == size)
+			return chunks;
+		int c = chunk(position);
+		int offset = position - firsts[c];
+		if(offset == 0)
+			return c;
+		open(c + 1, 1);
+		allocate(c + 1);
+		int moved = counts[c] - offset;
+		copy(c, offset, c + 1, 0, moved);
+		counts[c] = offset;
+		counts[c + 1] = moved;
+		firsts[c + 1] = position;
+		return c + 1;
+	}
+
+	/* merges chunk c + 1 into chunk c if they fit in one, or else evens them out if one is less than half full*/
+	private void seam(int c){
+		if(c < 0 || c + 1 >= chunks)
+			return;
+		int left = counts[c];
+		int right = counts[c + 1];
+		if(left + right <= CHUNK_SIZE){
+			copy(c + 1, 0, c, left, right);
+			counts[c] += right;
+			close(c + 1, 1);
+			return;
+		}
+		if(Math.min(left, right) >= CHUNK_SIZE / 2)
+			return;
+		int half = (left + right) >>> 1;
+		if(left > half){
+			copy(c + 1, 0, c + 1, left - half, right);
+			copy(c, half, c + 1, 0, left - half);
+		}
+		else{
+			copy(c + 1, 0, c, left, half - left);
+			copy(c + 1, half - left, c + 1, 0, right - (half - left));
+		}
+		counts[c] = half;
+		counts[c + 1] = left + right - half;
+	}
+
+	/* copies n entries from offset from of chunk c to offset to of chunk d, which may overlap*/
+	private void copy(int c, int from, int d, int to, int n){
+		System.arraycopy(tasks[c], from, tasks[d], to, n);
+		if(timed){
+			System.arraycopy(starts[c], from, starts[d], to, n);
+			System.arraycopy(cores[c], from, cores[d], to, n);
+		}
+	}
+
+	/* recomputes the positions of the chunks after chunk c*/
+	private void renumber(int c){
+		for(int k = Math.max(0, c); k < chunks; ++k)
+			firsts[k] = (k == 0) ? 0 : firsts[k - 1] + counts[k - 1];
+		finger = 0;
+	}
+
+	/* inserts k empty chunks at c, whose arrays are allocated on first use*/
+	private void open(int c, int k){
+		if(k == 0)
+			return;
+		if(chunks + k > counts.length){
+			int capacity = Math.max(chunks + k, counts.length << 1);
+			tasks = Arrays.copyOf(tasks, capacity);
+			counts = Arrays.copyOf(counts, capacity);
+			firsts = Arrays.copyOf(firsts, capacity);
+			if(timed){
+				starts = Arrays.copyOf(starts, capacity);
+				cores = Arrays.copyOf(cores, capacity);
+			}
+		}
+		System.arraycopy(tasks, c, tasks, c + k, chunks - c);
+		System.arraycopy(counts, c, counts, c + k, chunks - c);
+		System.arraycopy(firsts, c, firsts, c + k, chunks - c);
+		Arrays.fill(tasks, c, c + k, null);
+		Arrays.fill(counts, c, c + k, 0);
+		if(timed){
+			System.arraycopy(starts, c, starts, c + k, chunks - c);
+			System.arraycopy(cores, c, cores, c + k, chunks - c);
+			Arrays.fill(starts, c, c + k, null);
+			Arrays.fill(cores, c, c + k, null);
+		}
+		chunks += k;
+	}
+
+	/* removes the k chunks from c on*/
+	private void close(int c, int k){
+		if(k == 0)
+			return;
+		System.arraycopy(tasks, c + k, tasks, c, chunks - c - k);
+		System.arraycopy(counts, c + k, counts, c, chunks - c - k);
+		System.arraycopy(firsts, c + k, firsts, c, chunks - c - k);
+		Arrays.fill(tasks, chunks - k, chunks, null);
+		if(timed){
+			System.arraycopy(starts, c + k, starts, c, chunks - c - k);
+			System.arraycopy(cores, c + k, cores, c, chunks - c - k);
+			Arrays.fill(starts, chunks - k, chunks, null);
+			Arrays.fill(cores, chunks - k, chunks, null);
+		}
+		chunks -= k;
+	}
+
+	/* allocates the arrays of chunk c*/
+	private void allocate(int c){
+		tasks[c] = new int[CHUNK_SIZE];
+		if(timed){
+			starts[c] = new long[CHUNK_SIZE];
+			cores[c] = new int[CHUNK_SIZE];
+		}
+	}
+
+	/** Class handing out the tasks of a sequence in order from a position on, by
+	 *  moving a cursor over its chunks. The sequence must not change meanwhile.
+	 */
+	static class Cursor implements TaskQueue {
+		private ChunkedSequence sequence;		//the sequence
+		private int chunk;		//the chunk of the next task
+		private int offset;		//the position of the next task in its chunk
+		private int remaining = 0;		//the number of tasks left
+
+		/* hands out the tasks of the sequence from the given position on*/
+		void reset(ChunkedSequence sequence, int from){
+			this.sequence = sequence;
+			remaining = sequence.size - from;
+			if(remaining > 0){
+				chunk = sequence.chunk(from);
+				offset = from - sequence.firsts[chunk];
+			}
+		}
+
+		/* the sequence is fixed while it is handed out*/
+		public void offer(int i){
+			throw new UnsupportedOperationException();
+		}
+
+		public int peek(){
+			return (remaining > 0) ? sequence.tasks[chunk][offset] : -1;
+		}
+
+		public int poll(){
+			if(remaining == 0)
+				return -1;
+			int i = sequence.tasks[chunk][offset];
+			--remaining;
+			if(++offset == sequence.counts[chunk] && remaining > 0){
+				++chunk;
+				offset = 0;
+			}
+			return i;
+		}
+
+		public int size(){
+			return remaining;
+		}
+	}
+}
@@ -0,0 +1,30 @@
+/** Class of an IntHeap which counts its sifts and comparisons into a SchedulerStats.
+ *
+ *  While this class is not loaded, the calls of IntHeap to less, siftUp and siftDown
+ *  have a single target and are inlined as before.
+ */
+class CountingIntHeap extends IntHeap {
+	private final SchedulerStats stats;		//the statistics counted into
+	private final int which;		//the heap in the statistics, HEAP1 or HEAP2
+
+	CountingIntHeap(int initialCapacity, long[] keys, long[] ties, SchedulerStats stats, int which){
+		super(initialCapacity, keys, ties);
+		this.stats = stats;
+		this.which = which;
+	}
+
+	boolean less(int a, int b){
+		++stats.comparisons[which];
+		return super.less(a, b);
+	}
+
+	void siftUp(int k, int x){
+		++stats.sifts[which];
+		super.siftUp(k, x);
+	}
+
+	void siftDown(int k, int x){
+		++stats.sifts[which];
+		super.siftDown(k, x);
+	}
+}
@@ -0,0 +1,33 @@
+/** Class counting the offers and polls of a task queue and its peak size into a
+ *  SchedulerStats, and passing every call on to the queue.
+ */
+class CountingQueue implements TaskQueue {
+	private final TaskQueue queue;		//the counted queue
+	private final SchedulerStats stats;		//the statistics counted into
+	private final int which;		//the queue in the statistics, HEAP1 or HEAP2
+
+	CountingQueue(TaskQueue queue, SchedulerStats stats, int which){
+		this.queue = queue;
+		this.stats = stats;
+		this.which = which;
+	}
+
+	public void offer(int i){
+		queue.offer(i);
+		++stats.offers[which];
+		stats.peakSizes[which] = Math.max(stats.peakSizes[which], queue.size());
+	}
+
+	public int peek(){
+		return queue.peek();
+	}
+
+	public int poll(){
+		++stats.polls[which];
+		return queue.poll();
+	}
+
+	public int size(){
+		return queue.size();
+	}
+}
@@ -0,0 +1,19 @@
+/** Enum of the shapes of the release times and window lengths drawn by
+ *  WorkloadGenerator.
+ */
+enum Distribution {
+	/** Releases spread evenly over the time units; window lengths uniform in
+	 *  [1, maxWindow].
+	 */
+	UNIFORM,
+	/** Releases in bursts which fill every core, separated by idle periods, both of
+	 *  geometric length; window lengths mostly short, one in ten maxWindow long.
+	 */
+	BURSTY,
+	/** A Zipf-distributed number of releases in [1, m] in a random part of the time
+	 *  units, which cannot use more slots than the mean of the law when every unit
+	 *  has releases; Zipf-distributed window lengths in [1, maxWindow], so most
+	 *  windows are short.
+	 */
+	ZIPF
+}
@@ -0,0 +1,17 @@
+/** The engines which TaskScheduler can use to construct a schedule.
+ */
+enum Engine {
+	/** heap1 is a binary heap of all the tasks by release time, built in linear time */
+	HEAP,
+	/** heap1 is replaced by a cursor over the tasks radix sorted by release time */
+	SORTED,
+	/** heap1 and heap2 are bucket queues indexed by release time and by deadline,
+	 *  falling back to SORTED when the time range is sparse */
+	BUCKET,
+	/** the tasks are split into independent time segments which are scheduled in
+	 *  parallel by SORTED */
+	PARALLEL,
+	/** one of the others is picked from the statistics of the task set by
+	 *  TaskScheduler.chooseEngine */
+	AUTO
+}
@@ -0,0 +1,231 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Class scheduling task files which do not fit in memory.
+ *
+ *  The file is read in runs of at most runTasks tasks; each run is radix sorted by
+ *  release time and spilled to a temporary file. The runs are merged k ways, through
+ *  a heap of the runs by the release time of their next task, into an OnlineScheduler,
+ *  which only keeps the tasks released and not yet run, and the schedule is streamed
+ *  to file2 by a ScheduleWriter. So the memory needed is one run while reading, and a
+ *  buffer per run plus the tasks inside their windows while scheduling. Tasks released
+ *  at the same time are merged in file order, like scheduler() sees them; tasks with
+ *  equal deadlines may still run in another order than scheduler() runs them, which
+ *  only swaps tasks of equal deadlines between cores and time units.
+ *
+ *  If there are more than FAN_IN runs, groups of FAN_IN consecutive runs are merged
+ *  into longer runs first, so the number of open files and buffers stays bounded.
+ *  The disk needs room for the task file about once more, in the binary form of runs.
+ *
+ *  Usage: java ExternalScheduler [-run tasks] [-tmp dir] file1 file2 m
+ */
+public class ExternalScheduler {
+	static final int DEFAULT_RUN_TASKS = 1 << 24;		//the tasks sorted in memory at a time by default
+	static final int FAN_IN = 128;		//the most runs merged at once
+	private static final int MERGE_BUFFER_SIZE = 1 << 18;		//the read buffer of each merged run
+
+	private final int runTasks;		//the most tasks in a run
+	private final Path tempDir;		//the directory of the runs
+
+	public ExternalScheduler(int runTasks, Path tempDir){
+		if(runTasks < 1)
+			throw new IllegalArgumentException("runs need at least one task");
+		this.runTasks = runTasks;
+		this.tempDir = tempDir;
+	}
+
+	/** Schedules the tasks of file1 on m cores and, if the schedule is feasible, writes it
+	 *  to file2 with the extension .txt. Returns null if the schedule is feasible, otherwise
+	 *  the first task found to miss its deadline as "name release deadline".
+	 *
+	 *  @throws TaskFormatException if file1 is improperly formatted
+	 *  @throws IllegalArgumentException if m is less than 1
+	 */
+	String schedule(String file1, String file2, int m) throws IOException, TaskFormatException{
+		if(m < 1)
+			throw new IllegalArgumentException("m = " + m + " cores");
+		List<Path> runs = new ArrayList<Path>();
+		try{
+			spill(file1, runs);
+			while(runs.size() > FAN_IN)
+				mergeRuns(runs);
+			return schedule(runs, Paths.get(file2 + ".txt"), m);
+		}
+		finally{
+			for(Path run : runs)
+				RunFile.delete(run);
+		}
+	}
+
+	/* reads the file into sorted runs, adding them to runs as they are written*/
+	private void spill(String file1, List<Path> runs) throws IOException, TaskFormatException{
+		try(TaskReader reader = new TaskReader(file1)){
+			TaskSet run = new TaskSet(Math.min(runTasks, 1 << 16));
+			while(reader.next()){
+				reader.addTo(run);
+				if(run.size() == runTasks){
+					runs.add(writeRun(run));
+					run = new TaskSet(Math.min(runTasks, 1 << 16));
+				}
+			}
+			if(run.size() > 0)
+				runs.add(writeRun(run));
+		}
+	}
+
+	/* sorts the run by release time and writes it to a temporary file*/
+	private Path writeRun(TaskSet run) throws IOException{
+		Path file = Files.createTempFile(tempDir, "run", ".tmp");
+		RunFile.write(run, run.sortByRelTime(), file);
+		return file;
+	}
+
+	/* merges each group of FAN_IN consecutive runs into one run*/
+	private void mergeRuns(List<Path> runs) throws IOException{
+		List<Path> merged = new ArrayList<Path>();
+		for(int from = 0; from < runs.size(); from += FAN_IN){
+			List<Path> group = runs.subList(from, Math.min(from + FAN_IN, runs.size()));
+			Path file = Files.createTempFile(tempDir, "run", ".tmp");
+			merged.add(file);
+			try(Merge merge = new Merge(group); RunFile.Writer writer = new RunFile.Writer(file)){
+				RunFile next;
+				while((next = merge.next()) != null)
+					next.copyTo(writer);
+			}
+		}
+		for(Path run : runs)
+			RunFile.delete(run);
+		runs.clear();
+		runs.addAll(merged);
+	}
+
+	/* runs EDF over the merged runs and writes the schedule to file if it is feasible*/
+	private String schedule(List<Path> runs, Path file, int m) throws IOException{
+		String missed[] = new String[1];		//the first task which misses its deadline
+		try(Merge merge = new Merge(runs); ScheduleWriter writer = new ScheduleWriter(file)){
+			OnlineScheduler online = new OnlineScheduler(m, new ScheduleSink(){
+				public void run(String name, long start, int core) throws IOException{
+					writer.writeLine(name, start, core);
+				}
+				public void missed(String name, long relTime, long deadline){
+					if(missed[0] == null)
+						missed[0] = name + " " + relTime + " " + deadline;
+				}
+			});
+			RunFile next;
+			while(missed[0] == null && (next = merge.next()) != null){
+				//runs the time units before the release of the task, which no later task is released in
+				if(next.getRelTime() > online.getTime())
+					online.advanceTo(next.getRelTime());
+				if(missed[0] == null)
+					online.submit(next.name(), next.getRelTime(), next.getDeadline());
+			}
+			if(missed[0] == null)
+				online.finish();
+			if(missed[0] == null)
+				writer.commit();
+		}
+		return missed[0];
+	}
+
+	/** Class merging runs into release order, runs with equal release times in the
+	 *  order of the list.
+	 */
+	private static class Merge implements Closeable {
+		private final RunFile files[];		//the open runs
+		private final long heads[];		//the release time of the next task of each run
+		private final IntHeap heap;		//the runs with tasks left, by heads
+		private int last = -1;		//the run of the task returned last, or -1
+
+		Merge(List<Path> runs) throws IOException{
+			files = new RunFile[runs.size()];
+			heads = new long[runs.size()];
+			heap = new IntHeap(Math.max(1, runs.size()), heads);
+			try{
+				for(int r = 0; r < files.length; ++r){
+					files[r] = new RunFile(runs.get(r), MERGE_BUFFER_SIZE);
+					if(files[r].next()){
+						heads[r] = files[r].getRelTime();
+						heap.offer(r);
+					}
+				}
+			}
+			catch(IOException ioException){
+				close();
+				throw ioException;
+			}
+		}
+
+		/* returns the run holding the next task in release order, or null at the end*/
+		RunFile next() throws IOException{
+			if(last >= 0 && files[last].next()){
+				heads[last] = files[last].getRelTime();
+				heap.offer(last);
+			}
+			last = heap.poll();
+			return (last < 0) ? null : files[last];
+		}
+
+		public void close() throws IOException{
+			for(RunFile file : files)
+				if(file != null)
+					file.close();
+		}
+	}
+
+	public static void main(String[] args){
+		int runTasks = DEFAULT_RUN_TASKS;
+		Path tempDir = null;
+		int i = 0;
+		try{
+			for(; i < args.length && args[i].startsWith("-"); i += 2){
+				if(args[i].equals("-run") && i + 1 < args.length)
+					runTasks = (int) Double.parseDouble(args[i + 1]);
+				else if(args[i].equals("-tmp") && i + 1 < args.length)
+					tempDir = Paths.get(args[i + 1]);
+				else
+					throw new IllegalArgumentException("unknown option " + args[i]);
+			}
+			if(args.length - i != 3)
+				throw new IllegalArgumentException("file1, file2 and m are required");
+			if(Integer.parseInt(args[i + 2]) < 1)
+				throw new IllegalArgumentException("m must be at least 1");
+			if(runTasks < 1)
+				throw new IllegalArgumentException("runs need at least one task");
+		}
+		catch(IllegalArgumentException argumentException){
+			System.err.println(argumentException.getMessage());
+			System.err.println("Usage: java ExternalScheduler [-run tasks] [-tmp dir] file1 file2 m");
+			System.exit(2);
+		}
+		String file1 = args[i];
+		String file2 = args[i + 1];
+		int m = Integer.parseInt(args[i + 2]);
+		try{
+			if(tempDir == null)
+				tempDir = Paths.get(System.getProperty("java.io.tmpdir"));
+			String missed = new ExternalScheduler(runTasks, tempDir).schedule(file1, file2, m);
+			if(missed == null)
+				System.out.printf("There is a feasible schedule on %d cores of %s.\n", m, file1);
+			else
+				System.out.printf("No feasible schedule exists on %d cores of %s: task %s misses its deadline.\n",
+						m, file1, missed);
+		}
+		catch(NoSuchFileException fileNotFoundException){
+			System.err.printf("%s does not exist.\n", fileNotFoundException.getFile());
+		}
+		catch(TaskFormatException formatException){
+			System.out.printf("%s improperly formatted at line %d, column %d: %s.\n", file1,
+					formatException.getLine(), formatException.getColumn(), formatException.getMessage());
+		}
+		catch(IOException ioException){
+			System.out.printf("Erro scheduling %s: %s.\n", file1, ioException);
+		}
+	}
+}
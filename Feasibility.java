@@ -0,0 +1,55 @@
+/** Class representing the answer to whether a task set has a feasible schedule
+ *  on m identical cores.
+ *
+ *  If it has not, the answer carries an overloaded window as a certificate: the
+ *  tasks whose release time and deadline both lie in [getWindowStart(), getWindowEnd())
+ *  number more than m times the length of the window, so they cannot all run in it.
+ */
+class Feasibility {
+	private final int cores;		//the number of cores
+	private final long windowStart;		//the start of the overloaded window
+	private final long windowEnd;		//the end of the overloaded window
+	private final int[] windowTasks;		//the tasks which must run in the window, or null if feasible
+
+	private Feasibility(int m, long windowStart, long windowEnd, int[] windowTasks){
+		this.cores = m;
+		this.windowStart = windowStart;
+		this.windowEnd = windowEnd;
+		this.windowTasks = windowTasks;
+	}
+
+	/* returns the answer for a feasible task set on m cores*/
+	static Feasibility feasible(int m){
+		return new Feasibility(m, 0, 0, null);
+	}
+	/* returns the answer for a task set overloading the window [start, end) on m cores*/
+	static Feasibility overloaded(int m, long start, long end, int[] tasks){
+		return new Feasibility(m, start, end, tasks);
+	}
+
+	/* returns whether the task set has a feasible schedule*/
+	public boolean isFeasible(){
+		return windowTasks == null;
+	}
+	/* gets the number of cores*/
+	public int getCores(){
+		return cores;
+	}
+	/* gets the start of the overloaded window*/
+	public long getWindowStart(){
+		return windowStart;
+	}
+	/* gets the end of the overloaded window*/
+	public long getWindowEnd(){
+		return windowEnd;
+	}
+	/* gets the number of time units the window has room for*/
+	public long getCapacity(){
+		long length = windowEnd - windowStart;
+		return (length > Long.MAX_VALUE / Math.max(1, cores)) ? Long.MAX_VALUE : cores * length;
+	}
+	/* gets the tasks which must run in the window, in release order*/
+	public int[] getWindowTasks(){
+		return windowTasks;
+	}
+}
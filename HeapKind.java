@@ -0,0 +1,14 @@
+/** The heaps which TaskScheduler can use for heap2, and for heap1 under the HEAP
+ *  engine. They all hand out tasks with equal keys in the same order, so they
+ *  construct the same schedule.
+ */
+enum HeapKind {
+	/** IntHeap, a binary heap of task indices whose keys are looked up in the task set */
+	INDEXED,
+	/** PackedHeap with 2 children per node */
+	BINARY,
+	/** PackedHeap with 4 children per node */
+	QUATERNARY,
+	/** PairingHeap */
+	PAIRING
+}
@@ -0,0 +1,376 @@
+import java.util.Arrays;
+
+/** Class keeping the EDF schedule of a task set up to date as tasks are added,
+ *  removed and changed, without scheduling the whole task set again.
+ *
+ *  Changes are collected by add, remove and update and applied together by repair.
+ *  The schedule before the earliest affected time t0 stays as it is: t0 is the
+ *  earliest of the old start times and the new release times of the changed tasks,
+ *  since a task waiting in heap2 never changes which other task runs before it
+ *  does. EDF restarts at t0 from the tasks the old schedule had pending then, which
+ *  it finds after t0 in the schedule, and a cursor over the tasks in release order.
+ *  heap2 is an IndexedHeap ordered by deadline, then release time, then index, so
+ *  the schedule is the one scheduler() constructs for the remaining tasks.
+ *
+ *  The repair stops as soon as the old and new schedules meet: at a time at which
+ *  both have the same tasks pending, the old schedule holds until the next release
+ *  of a changed task, where the repair starts again, and after the last one it holds
+ *  to the end. The pending sets are compared by counting the tasks pending in one of
+ *  them only, kept up to date as both schedules release and run tasks, so the heap
+ *  work follows the spans of time the changes disturb, not the size of the task set.
+ *  The release order and the schedule are ChunkedSequences, so patching them costs
+ *  the entries changed and a few chunks, not the size of the task set. If the old
+ *  schedule was not feasible, the whole task set is scheduled again.
+ *
+ *  Removed tasks keep their index in the task set, so getTasks() of the schedule
+ *  also holds them, but the schedule does not list them.
+ */
+class IncrementalScheduler {
+	private final TaskSet tasks;		//the tasks, removed ones included
+	private final int m;		//the number of cores
+	private final ChunkedSchedule schedule;		//the schedule of the tasks not removed
+
+	private final ChunkedSequence byRelease = new ChunkedSequence(false);		//the tasks not removed by release time, ties in index order
+	private long[] startOf;		//the start time of each task in the schedule, or -1
+	private boolean[] removed;		//whether each task has been removed
+
+	private int[] changeSlot;		//the position of each task in the changes, or -1
+	private int[] changedTasks = new int[16];		//the tasks changed since the last repair
+	private long[] changedRelTimes = new long[16];		//the release time of each changed task before the changes, or -1 if added
+	private int changes = 0;		//the number of changed tasks
+
+	private final ChunkedSequence.Cursor heap1 = new ChunkedSequence.Cursor();		//the tasks from t0 on in release order
+	private final IndexedHeap heap2;		//the released tasks by deadline
+	private int[] balance;		//whether each unchanged task is pending in the new schedule minus whether it is in the old one
+	private int[] touched = new int[16];		//the tasks whose balance has been changed
+	private int touchedSize = 0;		//the number of touched tasks
+	private int differing = 0;		//the number of tasks pending in one schedule only
+
+	private int[] newOrder = new int[16];		//the tasks run by the repair
+	private long[] newStart = new long[16];		//the start time of each task run by the repair
+	private int[] newCore = new int[16];		//the core of each task run by the repair
+	private int newSize = 0;		//the number of tasks run by the repair
+
+	/** Schedules the given tasks on m cores. The scheduler owns the task set from
+	 *  now on: it is changed through add, remove and update only.
+	 */
+	public IncrementalScheduler(TaskSet tasks, int m){
+		if(m < 1)
+			throw new IllegalArgumentException("m = " + m + " cores");
+		this.tasks = tasks;
+		this.m = m;
+		int n = tasks.size();
+		byRelease.replace(0, 0, tasks.sortByRelTime(), null, null, n);
+		startOf = new long[n];
+		Arrays.fill(startOf, -1);
+		removed = new boolean[n];
+		changeSlot = new int[n];
+		Arrays.fill(changeSlot, -1);
+		balance = new int[n];
+		heap2 = new IndexedHeap(n, tasks.deadlines(), tasks.relTimes());
+		schedule = new ChunkedSchedule(tasks, m);
+		reschedule(false, 0);
+	}
+
+	/** Adds a task and returns its index. It is scheduled by the next repair.
+	 */
+	public int add(String name, long r, long d){
+		check(name, r, d);
+		int i = tasks.add(name, r, d);
+		grow(tasks.size());
+		change(i, -1);
+		return i;
+	}
+
+	/** Removes task i. It leaves the schedule at the next repair.
+	 */
+	public void remove(int i){
+		checkLive(i);
+		change(i, tasks.getRelTime(i));
+		removed[i] = true;
+	}
+
+	/** Changes the release time and deadline of task i. It is rescheduled by the next repair.
+	 */
+	public void update(int i, long r, long d){
+		checkLive(i);
+		check(tasks.getName(i), r, d);
+		change(i, tasks.getRelTime(i));
+		tasks.set(i, r, d);
+	}
+
+	/** Applies the changes made since the last repair and returns the schedule, which
+	 *  is the one returned by every call.
+	 */
+	public ScheduleView repair(){
+		if(changes == 0)
+			return schedule;
+		boolean track = schedule.isFeasible();
+		long t0 = Long.MAX_VALUE;		//the earliest time the changes affect
+		for(int slot = 0; slot < changes; ++slot){
+			int i = changedTasks[slot];
+			if(changedRelTimes[slot] >= 0)
+				t0 = Math.min(t0, startOf[i]);
+			if(!removed[i])
+				t0 = Math.min(t0, tasks.getRelTime(i));
+		}
+		updateReleaseOrder();
+		if(t0 < Long.MAX_VALUE)
+			reschedule(track, t0);
+		for(int slot = 0; slot < changes; ++slot)
+			changeSlot[changedTasks[slot]] = -1;
+		changes = 0;
+		return schedule;
+	}
+
+	/* gets the schedule of the tasks as of the last repair*/
+	public ScheduleView getSchedule(){
+		return schedule;
+	}
+
+	/** Schedules the tasks again from time t0 on, or all of them if track is false.
+	 *
+	 *  When tracking, a segment of the schedule ends at a time t at which the old and
+	 *  new schedules have the same tasks pending and no changed task is released, and
+	 *  the next segment starts at the next release time, old or new, of a changed task.
+	 *  In between the old schedule is kept, so each segment costs what the changes in
+	 *  it disturb.
+	 */
+	private void reschedule(boolean track, long t0){
+		heap2.grow(tasks.size(), tasks.deadlines(), tasks.relTimes());
+		IntHeap oldReleases = new IntHeap(Math.max(1, changes), changedRelTimes);		//the changes of old tasks by old release time
+		IntHeap newReleases = new IntHeap(Math.max(1, changes), tasks.relTimes());		//the changed tasks not removed by release time
+		if(track){
+			for(int slot = 0; slot < changes; ++slot){
+				if(changedRelTimes[slot] >= 0)
+					oldReleases.offer(slot);
+				if(!removed[changedTasks[slot]])
+					newReleases.offer(changedTasks[slot]);
+			}
+		}
+
+		for(long t = track ? t0 : 0; t < Long.MAX_VALUE; ){
+			int from = track ? firstStart(t) : 0;		//the first entry of the old schedule to replace
+			int rank = track ? firstRelease(t) : 0;		//the first task released at or after t
+			heap1.reset(byRelease, rank);
+			heap2.clear();
+			if(track){
+				//the tasks released before t and not run by then, found in the old schedule
+				for(int k = from, pending = rank - from; pending > 0; ++k){
+					int task = schedule.getTask(k);
+					if(changeSlot[task] < 0 && tasks.getRelTime(task) < t){
+						heap2.offer(task);
+						--pending;
+					}
+				}
+				//the changed tasks pending at t in the old schedule only
+				for(; oldReleases.size() > 0 && changedRelTimes[oldReleases.peek()] < t; oldReleases.poll())
+					if(startOf[changedTasks[oldReleases.peek()]] >= t)
+						++differing;
+			}
+
+			newSize = 0;
+			int old = from;		//the next entry of the old schedule to compare
+			int to = schedule.size();		//the entry after the last one to replace
+			int missed = -1;
+			long next = Long.MAX_VALUE;		//the start of the next segment
+			segment:
+			while(heap1.size() > 0 || heap2.size() > 0){
+				if(heap2.size() == 0)
+					t = Math.max(t, tasks.getRelTime(heap1.peek()));
+				if(track){
+					//catches the old schedule up to time t
+					for(; old < schedule.size() && schedule.getStart(old) < t; ++old)
+						run(schedule.getTask(old), 1);
+					for(; oldReleases.size() > 0 && changedRelTimes[oldReleases.peek()] < t; oldReleases.poll())
+						++differing;
+					while(newReleases.size() > 0 && tasks.getRelTime(newReleases.peek()) < t)
+						newReleases.poll();
+					//the same tasks are pending, and the same are released until the next change
+					if(differing == 0){
+						long oldRelease = (oldReleases.size() > 0) ? changedRelTimes[oldReleases.peek()] : Long.MAX_VALUE;
+						long newRelease = (newReleases.size() > 0) ? tasks.getRelTime(newReleases.peek()) : Long.MAX_VALUE;
+						if(Math.min(oldRelease, newRelease) > t){
+							to = old;
+							next = Math.min(oldRelease, newRelease);
+							break;
+						}
+					}
+				}
+				while(heap1.size() > 0 && tasks.getRelTime(heap1.peek()) <= t){
+					int task = heap1.poll();
+					heap2.offer(task);
+					if(track && changeSlot[task] >= 0)
+						++differing;
+				}
+				for(int core = 0; core < m && heap2.size() > 0; ++core){
+					int task = heap2.poll();
+					if(tasks.getDeadline(task) <= t){
+						missed = task;
+						break segment;
+					}
+					append(task, t, core);
+					if(track)
+						run(task, -1);
+				}
+				++t;
+			}
+
+			for(int k = from; k < to; ++k)
+				startOf[schedule.getTask(k)] = -1;
+			for(int k = 0; k < newSize; ++k)
+				startOf[newOrder[k]] = newStart[k];
+			schedule.splice(from, to, newOrder, newStart, newCore, newSize);
+			schedule.setMissedTask(missed);
+			for(int k = 0; k < touchedSize; ++k)
+				balance[touched[k]] = 0;
+			touchedSize = 0;
+			differing = 0;
+			t = (missed < 0) ? next : Long.MAX_VALUE;
+		}
+	}
+
+	/** Patches the release order: the changed tasks leave their old positions, found
+	 *  by their old release times, and the ones not removed are inserted by their new
+	 *  release times.
+	 */
+	private void updateReleaseOrder(){
+		int drops[] = new int[changes];
+		int dropCount = 0;
+		for(int slot = 0; slot < changes; ++slot)
+			if(changedRelTimes[slot] >= 0)
+				drops[dropCount++] = search(changedRelTimes[slot], changedTasks[slot], true);
+		//from the last position back, so the earlier positions stay where they were found
+		Arrays.sort(drops, 0, dropCount);
+		for(int d = dropCount - 1; d >= 0; --d)
+			byRelease.remove(drops[d]);
+		for(int slot = 0; slot < changes; ++slot){
+			int i = changedTasks[slot];
+			if(!removed[i])
+				byRelease.insert(search(tasks.getRelTime(i), i, false), i);
+		}
+	}
+
+	/** Returns the first position of the release order whose task comes at or after
+	 *  task i released at r, the changed tasks by their release times before the
+	 *  changes if old is true.
+	 */
+	private int search(long r, int i, boolean old){
+		int low = 0;
+		int high = byRelease.size();
+		while(low < high){
+			int mid = (low + high) >>> 1;
+			int task = byRelease.getTask(mid);
+			int slot = changeSlot[task];
+			long relTime = (old && slot >= 0) ? changedRelTimes[slot] : tasks.getRelTime(task);
+			if(relTime < r || (relTime == r && task < i))
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+	/* returns the first position of the release order whose task is released at or after t*/
+	private int firstRelease(long t){
+		int low = 0;
+		int high = byRelease.size();
+		while(low < high){
+			int mid = (low + high) >>> 1;
+			if(tasks.getRelTime(byRelease.getTask(mid)) < t)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+	/* returns the first entry of the schedule starting at or after t*/
+	private int firstStart(long t){
+		int low = 0;
+		int high = schedule.size();
+		while(low < high){
+			int mid = (low + high) >>> 1;
+			if(schedule.getStart(mid) < t)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+	/** Records that task i has run in the old schedule, delta 1, or in the new one,
+	 *  delta -1. A changed task is a different task in each schedule, so its old form
+	 *  differs from its release to its run in the old schedule, and its new form from
+	 *  its release to its run in the new one. An unchanged task differs while it has
+	 *  run in one schedule only, which its balance records.
+	 */
+	private void run(int i, int delta){
+		if(changeSlot[i] >= 0){
+			--differing;
+			return;
+		}
+		if(balance[i] == 0){
+			++differing;
+			if(touchedSize == touched.length)
+				touched = Arrays.copyOf(touched, touchedSize << 1);
+			touched[touchedSize++] = i;
+		}
+		balance[i] += delta;
+		if(balance[i] == 0)
+			--differing;
+	}
+
+	/* appends task i starting at time t on core c to the tasks run by the repair*/
+	private void append(int i, long t, int c){
+		if(newSize == newOrder.length){
+			newOrder = Arrays.copyOf(newOrder, newSize << 1);
+			newStart = Arrays.copyOf(newStart, newSize << 1);
+			newCore = Arrays.copyOf(newCore, newSize << 1);
+		}
+		newOrder[newSize] = i;
+		newStart[newSize] = t;
+		newCore[newSize++] = c;
+	}
+
+	/* records task i as changed, with its release time before the changes or -1 if it is added*/
+	private void change(int i, long oldRelTime){
+		if(changeSlot[i] >= 0)
+			return;
+		if(changes == changedTasks.length){
+			changedTasks = Arrays.copyOf(changedTasks, changes << 1);
+			changedRelTimes = Arrays.copyOf(changedRelTimes, changes << 1);
+		}
+		changeSlot[i] = changes;
+		changedTasks[changes] = i;
+		changedRelTimes[changes++] = oldRelTime;
+	}
+
+	/* makes room in the task columns for the tasks 0 to n-1*/
+	private void grow(int n){
+		if(n <= startOf.length)
+			return;
+		int old = startOf.length;
+		int capacity = Math.max(n, old + (old >> 1));
+		startOf = Arrays.copyOf(startOf, capacity);
+		Arrays.fill(startOf, old, capacity, -1);
+		removed = Arrays.copyOf(removed, capacity);
+		changeSlot = Arrays.copyOf(changeSlot, capacity);
+		Arrays.fill(changeSlot, old, capacity, -1);
+		balance = Arrays.copyOf(balance, capacity);
+	}
+
+	/* checks that a task can be released at r with deadline d*/
+	private static void check(String name, long r, long d){
+		if(r < 0)
+			throw new IllegalArgumentException("release time " + r + " of task " + name + " is negative");
+		if(d <= r)
+			throw new IllegalArgumentException("deadline " + d + " of task " + name + " is not after its release time " + r);
+	}
+
+	/* checks that task i is in the task set and not removed*/
+	private void checkLive(int i){
+		if(i < 0 || i >= tasks.size() || removed[i])
+			throw new IllegalArgumentException("task " + i + " is not scheduled");
+	}
+}
@@ -0,0 +1,158 @@
+import java.util.Arrays;
+
+/** Class representing a priority queue of task indices which knows where each task is.
+ *
+ *  It is the binary heap of IntHeap plus a position array, pos[i] being the slot of
+ *  task i in the heap or -1, so contains is O(1) and remove and update are O(log n)
+ *  instead of the linear indexOf scan of PriorityQueue.remove. Task i is ordered by
+ *  keys[i], ties broken by ties[i] if a tie column is given and then by the task
+ *  index. The keys of a task may change while it is in the heap as long as update
+ *  is called right after.
+ */
+class IndexedHeap implements TaskQueue {
+	private int[] queue;		//the heap of task indices
+	private int[] pos;		//the slot of each task in queue, or -1
+	private int size = 0;		//the number of tasks in the heap
+	private long[] keys;		//the key of each task
+	private long[] ties;		//the tie breaker of each task, or null
+
+	/* creates an empty heap of the tasks 0 to capacity-1*/
+	public IndexedHeap(int capacity, long[] keys){
+		this(capacity, keys, null);
+	}
+
+	/* creates an empty heap of the tasks 0 to capacity-1 breaking ties of keys by ties*/
+	public IndexedHeap(int capacity, long[] keys, long[] ties){
+		queue = new int[Math.max(1, capacity)];
+		pos = new int[Math.max(1, capacity)];
+		Arrays.fill(pos, -1);
+		this.keys = keys;
+		this.ties = ties;
+	}
+
+	/** Makes room for the tasks 0 to capacity-1, ordered by the given key column
+	 *  which holds the same values as the old one for the tasks in the heap.
+	 */
+	void grow(int capacity, long[] keys){
+		grow(capacity, keys, ties);
+	}
+
+	/* grows the heap like grow(capacity, keys) with the given tie column*/
+	void grow(int capacity, long[] keys, long[] ties){
+		if(capacity > pos.length){
+			//grows by half at least, so growing one task at a time is amortized O(1)
+			int old = pos.length;
+			capacity = Math.max(capacity, old + (old >> 1));
+			queue = Arrays.copyOf(queue, capacity);
+			pos = Arrays.copyOf(pos, capacity);
+			Arrays.fill(pos, old, capacity, -1);
+		}
+		this.keys = keys;
+		this.ties = ties;
+	}
+
+	/** Inserts task i, which must not be in the heap.
+	 */
+	public void offer(int i){
+		pos[i] = size;
+		siftUp(size++, i);
+	}
+
+	public int peek(){
+		return (size == 0) ? -1 : queue[0];
+	}
+
+	public int poll(){
+		if(size == 0)
+			return -1;
+		int result = queue[0];
+		removeAt(0);
+		return result;
+	}
+
+	/* returns whether task i is in the heap*/
+	public boolean contains(int i){
+		return i < pos.length && pos[i] >= 0;
+	}
+
+	/** Removes task i if it is in the heap and returns whether it was.
+	 */
+	public boolean remove(int i){
+		if(!contains(i))
+			return false;
+		removeAt(pos[i]);
+		return true;
+	}
+
+	/** Restores the order after the key of task i has changed, in either direction.
+	 */
+	public void update(int i){
+		int k = pos[i];
+		siftUp(k, i);
+		if(queue[k] == i)
+			siftDown(k, i);
+	}
+
+	public int size(){
+		return size;
+	}
+
+	public void clear(){
+		for(int k = 0; k < size; ++k)
+			pos[queue[k]] = -1;
+		size = 0;
+	}
+
+	private void removeAt(int k){
+		int removed = queue[k];
+		pos[removed] = -1;
+		int s = --size;
+		if(s == k)
+			return;
+		int moved = queue[s];
+		siftDown(k, moved);
+		if(queue[k] == moved)
+			siftUp(k, moved);
+	}
+
+	/* returns whether task a is ordered before task b*/
+	private boolean less(int a, int b){
+		if(keys[a] != keys[b])
+			return keys[a] < keys[b];
+		if(ties != null && ties[a] != ties[b])
+			return ties[a] < ties[b];
+		return a < b;
+	}
+
+	private void siftUp(int k, int x){
+		while(k > 0){
+			int parent = (k - 1) >>> 1;
+			int e = queue[parent];
+			if(!less(x, e))
+				break;
+			queue[k] = e;
+			pos[e] = k;
+			k = parent;
+		}
+		queue[k] = x;
+		pos[x] = k;
+	}
+
+	private void siftDown(int k, int x){
+		int half = size >>> 1;
+		while(k < half){
+			int child = (k << 1) + 1;
+			int c = queue[child];
+			int right = child + 1;
+			if(right < size && less(queue[right], c))
+				c = queue[child = right];
+			if(!less(c, x))
+				break;
+			queue[k] = c;
+			pos[c] = k;
+			k = child;
+		}
+		queue[k] = x;
+		pos[x] = k;
+	}
+}
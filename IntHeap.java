@@ -0,0 +1,140 @@
+import java.util.Arrays;
+
+/** Class representing a priority queue of task indices.
+ *
+ *  It is the binary heap of PriorityQueue with the references replaced by int task
+ *  indices: task i is ordered by keys[i], where keys is a column of a TaskSet such
+ *  as the release times or the deadlines. Ties are broken by an optional second
+ *  column, then by the task index.
+ */
+class IntHeap implements TaskQueue {
+	private static final int DEFAULT_INITIAL_CAPACITY = 11;
+
+	private int[] queue;		//the heap of task indices, the children of queue[n] are queue[2*n+1] and queue[2*(n+1)]
+	private int size = 0;		//the number of tasks in the heap
+	private long[] keys;		//the key of each task
+	private long[] ties;		//the key breaking ties of keys, or null
+
+	public IntHeap(long[] keys){
+		this(DEFAULT_INITIAL_CAPACITY, keys);
+	}
+
+	public IntHeap(int initialCapacity, long[] keys){
+		this(initialCapacity, keys, null);
+	}
+
+	public IntHeap(int initialCapacity, long[] keys, long[] ties){
+		if(initialCapacity < 1)
+			throw new IllegalArgumentException();
+		this.queue = new int[initialCapacity];
+		this.keys = keys;
+		this.ties = ties;
+	}
+
+	/** Replaces the key columns by copies holding the same values for the tasks in
+	 *  the heap, such as the columns of a task set which has grown.
+	 */
+	void setKeys(long[] keys, long[] ties){
+		this.keys = keys;
+		this.ties = ties;
+	}
+
+	/** Inserts task i into the heap.
+	 */
+	public void offer(int i){
+		if(size == queue.length)
+			queue = Arrays.copyOf(queue, size + ((size < 64) ? (size + 2) : (size >> 1)));
+		siftUp(size++, i);
+	}
+
+	/** Inserts the first n tasks of the array into the heap. The heap invariant is
+	 *  established once by heapify, which takes O(n) time instead of the O(n log n)
+	 *  of offering the tasks one by one.
+	 */
+	public void addAll(int[] tasks, int n){
+		if(size + n > queue.length)
+			queue = Arrays.copyOf(queue, size + n);
+		System.arraycopy(tasks, 0, queue, size, n);
+		size += n;
+		heapify();
+	}
+
+	/** Inserts the tasks 0 to n-1 into the heap in O(n) time.
+	 */
+	public void addRange(int n){
+		if(size + n > queue.length)
+			queue = Arrays.copyOf(queue, size + n);
+		for(int i = 0; i < n; ++i)
+			queue[size++] = i;
+		heapify();
+	}
+
+	/** Returns the task with the smallest key, or -1 if the heap is empty.
+	 */
+	public int peek(){
+		return (size == 0) ? -1 : queue[0];
+	}
+
+	/** Removes and returns the task with the smallest key, or -1 if the heap is empty.
+	 */
+	public int poll(){
+		if(size == 0)
+			return -1;
+		int result = queue[0];
+		int s = --size;
+		if(s != 0)
+			siftDown(0, queue[s]);
+		return result;
+	}
+
+	public int size(){
+		return size;
+	}
+
+	public void clear(){
+		size = 0;
+	}
+
+	/* returns whether task a is ordered before task b*/
+	boolean less(int a, int b){
+		if(keys[a] != keys[b])
+			return keys[a] < keys[b];
+		if(ties != null && ties[a] != ties[b])
+			return ties[a] < ties[b];
+		return a < b;
+	}
+
+	void siftUp(int k, int x){
+		while(k > 0){
+			int parent = (k - 1) >>> 1;
+			int e = queue[parent];
+			if(!less(x, e))
+				break;
+			queue[k] = e;
+			k = parent;
+		}
+		queue[k] = x;
+	}
+
+	void siftDown(int k, int x){
+		int half = size >>> 1;
+		while(k < half){
+			int child = (k << 1) + 1;
+			int c = queue[child];
+			int right = child + 1;
+			if(right < size && less(queue[right], c))
+				c = queue[child = right];
+			if(!less(c, x))
+				break;
+			queue[k] = c;
+			k = child;
+		}
+		queue[k] = x;
+	}
+
+	/* establishes the heap invariant in the entire tree*/
+	private void heapify(){
+		for(int i = (size >>> 1) - 1; i >= 0; i--)
+			siftDown(i, queue[i]);
+	}
+}
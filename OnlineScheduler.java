@@ -0,0 +1,210 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/** Class scheduling a stream of tasks on m identical cores by EDF as time advances.
+ *
+ *  Tasks are submitted in roughly release order and advanceTo(t) runs every time unit
+ *  before t, handing the tasks run in each unit to a ScheduleSink. Only pending tasks
+ *  are kept: each one takes a slot of the columns below, and its slot is reused once
+ *  it has run, so memory follows the number of pending tasks, not the length of the
+ *  stream. Idle time is skipped by jumping to the next release time.
+ *
+ *  A task submitted after its release time has passed is released at the current time.
+ *
+ *  Usage: java OnlineScheduler m [lag] < tasks
+ *  reads tasks from the standard input and writes "name start core" lines as soon as
+ *  they are known. Each task advances the time to its release time minus lag, so tasks
+ *  may arrive up to lag time units out of order.
+ */
+class OnlineScheduler {
+	private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+	private final int m;		//the number of cores
+	private final ScheduleSink sink;		//the receiver of the schedule
+	private long now = 0;		//the start of the next time unit to run
+
+	private String[] names;		//the name of the task in each slot
+	private long[] relTimes;		//the release time of the task in each slot
+	private long[] deadlines;		//the deadline of the task in each slot
+	private int[] free;		//the stack of free slots
+	private int freeSize = 0;		//the number of free slots in the stack
+	private int used = 0;		//the number of slots ever used
+
+	private final IntHeap heap1;		//the submitted tasks not released yet, by release time
+	private final IntHeap heap2;		//the released tasks, by deadline then release time
+
+	private long scheduled = 0;		//the number of tasks run
+	private long missed = 0;		//the number of tasks dropped
+
+	public OnlineScheduler(int m, ScheduleSink sink){
+		if(m < 1)
+			throw new IllegalArgumentException("at least one core is needed");
+		this.m = m;
+		this.sink = sink;
+		names = new String[DEFAULT_INITIAL_CAPACITY];
+		relTimes = new long[DEFAULT_INITIAL_CAPACITY];
+		deadlines = new long[DEFAULT_INITIAL_CAPACITY];
+		free = new int[DEFAULT_INITIAL_CAPACITY];
+		heap1 = new IntHeap(relTimes);
+		heap2 = new IntHeap(11, deadlines, relTimes);
+	}
+
+	/** Submits a task. If its deadline has already passed it goes straight to the sink as missed.
+	 */
+	public void submit(String name, long r, long d) throws IOException{
+		if(d <= r)
+			throw new IllegalArgumentException("deadline " + d + " of task " + name + " is not after its release time " + r);
+		if(d <= now){
+			++missed;
+			sink.missed(name, r, d);
+			return;
+		}
+		int slot = allocate();
+		names[slot] = name;
+		relTimes[slot] = Math.max(r, now);
+		deadlines[slot] = d;
+		if(relTimes[slot] <= now)
+			heap2.offer(slot);
+		else
+			heap1.offer(slot);
+	}
+
+	/** Runs every time unit before t and returns the number of tasks run.
+	 */
+	public long advanceTo(long t) throws IOException{
+		long before = scheduled;
+		while(now < t){
+			//moves the tasks released by now from heap1 to heap2
+			while(heap1.size() > 0 && relTimes[heap1.peek()] <= now)
+				heap2.offer(heap1.poll());
+			
+			//if no task is ready, jumps to the release time of the next task
+			if(heap2.size() == 0){
+				now = (heap1.size() == 0) ? t : Math.min(t, relTimes[heap1.peek()]);
+				continue;
+			}
+			
+			//executes at most m tasks with the earliest deadlines in this time unit
+			int core = 0;
+			while(core < m && heap2.size() > 0){
+				int slot = heap2.poll();
+				if(deadlines[slot] <= now){
+					++missed;
+					sink.missed(names[slot], relTimes[slot], deadlines[slot]);
+				}
+				else{
+					++scheduled;
+					sink.run(names[slot], now, core++);
+				}
+				release(slot);
+			}
+			++now;
+		}
+		return scheduled - before;
+	}
+
+	/** Runs the time units until every submitted task has run or been dropped.
+	 */
+	public void finish() throws IOException{
+		while(pending() > 0){
+			long next = (heap2.size() > 0) ? now : relTimes[heap1.peek()];
+			advanceTo(next + 1);
+		}
+	}
+
+	/* gets the start of the next time unit to run*/
+	public long getTime(){
+		return now;
+	}
+	/* gets the number of tasks submitted and not yet run or dropped*/
+	public int pending(){
+		return heap1.size() + heap2.size();
+	}
+	/* gets the number of tasks run*/
+	public long getScheduled(){
+		return scheduled;
+	}
+	/* gets the number of tasks dropped because they missed their deadline*/
+	public long getMissed(){
+		return missed;
+	}
+
+	/* takes a free slot, growing the columns if there is none*/
+	private int allocate(){
+		if(freeSize > 0)
+			return free[--freeSize];
+		if(used == relTimes.length){
+			int newCapacity = used + (used >> 1);
+			names = Arrays.copyOf(names, newCapacity);
+			relTimes = Arrays.copyOf(relTimes, newCapacity);
+			deadlines = Arrays.copyOf(deadlines, newCapacity);
+			free = Arrays.copyOf(free, newCapacity);
+			heap1.setKeys(relTimes, null);
+			heap2.setKeys(deadlines, relTimes);
+		}
+		return used++;
+	}
+
+	/* gives back the slot of a task which has run or been dropped*/
+	private void release(int slot){
+		names[slot] = null;
+		free[freeSize++] = slot;
+	}
+
+	public static void main(String[] args) throws Exception{
+		int m = 0;
+		long lag = 0;
+		try{
+			if(args.length < 1)
+				throw new IllegalArgumentException("m is required");
+			if(args.length > 2)
+				throw new IllegalArgumentException("only m and lag are expected");
+			m = Integer.parseInt(args[0]);
+			if(m < 1)
+				throw new IllegalArgumentException("m must be at least 1");
+			if(args.length > 1)
+				lag = Long.parseLong(args[1]);
+			if(lag < 0)
+				throw new IllegalArgumentException("lag must be at least 0");
+		}
+		catch(IllegalArgumentException argumentException){
+			System.err.println(argumentException.getMessage());
+			System.err.println("Usage: java OnlineScheduler m [lag] < tasks");
+			System.exit(2);
+		}
+		BufferedWriter out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+		OnlineScheduler scheduler = new OnlineScheduler(m, new ScheduleSink(){
+			public void run(String name, long start, int core) throws IOException{
+				out.write(name);
+				out.write(' ');
+				out.write(Long.toString(start));
+				out.write(' ');
+				out.write(Integer.toString(core));
+				out.write('\n');
+			}
+			public void missed(String name, long relTime, long deadline){
+				System.err.printf("Task %s %d %d missed its deadline.\n", name, relTime, deadline);
+			}
+		});
+		try(TaskReader reader = new TaskReader(Channels.newChannel(System.in))){
+			while(reader.next()){
+				//the time before which no more tasks are expected
+				long t = reader.getRelTime() - lag;
+				if(t > scheduler.getTime() && scheduler.advanceTo(t) > 0)
+					out.flush();
+				scheduler.submit(reader.name(), reader.getRelTime(), reader.getDeadline());
+			}
+		}
+		catch(TaskFormatException formatException){
+			System.err.printf("Input improperly formatted at line %d, column %d: %s.\n",
+					formatException.getLine(), formatException.getColumn(), formatException.getMessage());
+		}
+		scheduler.finish();
+		out.flush();
+		System.err.printf("%d tasks scheduled, %d missed their deadline.\n", scheduler.getScheduled(), scheduler.getMissed());
+	}
+}
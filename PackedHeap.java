@@ -0,0 +1,117 @@
+import java.util.Arrays;
+
+/** Class representing a d-ary heap of tasks whose entries are primitive packed keys.
+ *
+ *  Each entry is one long, the key of the task minus the smallest key in the high 32
+ *  bits and the number of the offer in the low 32 bits, so a comparison is one long
+ *  comparison of two adjacent array elements instead of two lookups in the key
+ *  column. Tasks with equal keys come out in the order they were offered, which is
+ *  the (release time, index) order in which edf offers them. With 4 children per
+ *  node the heap is half as deep as a binary heap, and the children compared by
+ *  siftDown share a cache line.
+ *
+ *  The keys must span less than 2^31 time units, see fits().
+ */
+class PackedHeap implements TaskQueue {
+	private final int shift;		//log2 of the number of children per node
+	private final long[] keys;		//the key column of the tasks
+	private final long base;		//the smallest key
+	private long[] heap;		//the packed entries, the children of heap[k] are heap[(k << shift) + 1] and on
+	private int size = 0;		//the number of tasks in the heap
+	private int[] taskOf;		//the task of each offer number
+	private int offers = 0;		//the number of the next offer
+
+	/* creates an empty heap with 2^shift children per node*/
+	public PackedHeap(int shift, long[] keys, long base, int initialCapacity){
+		this.shift = shift;
+		this.keys = keys;
+		this.base = base;
+		this.heap = new long[Math.max(1, initialCapacity)];
+		this.taskOf = new int[Math.max(1, initialCapacity)];
+	}
+
+	/** Returns whether keys from min to max can be packed.
+	 */
+	static boolean fits(long min, long max){
+		return min <= max && max - min < (1L << 31);
+	}
+
+	public void offer(int i){
+		if(size == heap.length)
+			heap = Arrays.copyOf(heap, size + (size >> 1) + 1);
+		if(offers == taskOf.length)
+			taskOf = Arrays.copyOf(taskOf, offers + (offers >> 1) + 1);
+		taskOf[offers] = i;
+		siftUp(size++, ((keys[i] - base) << 32) | offers++);
+	}
+
+	/** Inserts the tasks 0 to n-1 into the empty heap in O(n) time.
+	 */
+	public void addRange(int n){
+		if(n > heap.length)
+			heap = Arrays.copyOf(heap, n);
+		if(n > taskOf.length)
+			taskOf = Arrays.copyOf(taskOf, n);
+		for(int i = 0; i < n; ++i){
+			taskOf[i] = i;
+			heap[i] = ((keys[i] - base) << 32) | i;
+		}
+		size = offers = n;
+		for(int k = ((size - 2) >> shift); k >= 0; --k)
+			siftDown(k, heap[k]);
+	}
+
+	public int peek(){
+		return (size == 0) ? -1 : taskOf[(int) heap[0]];
+	}
+
+	public int poll(){
+		if(size == 0)
+			return -1;
+		int result = taskOf[(int) heap[0]];
+		int s = --size;
+		if(s != 0)
+			siftDown(0, heap[s]);
+		return result;
+	}
+
+	public int size(){
+		return size;
+	}
+
+	private void siftUp(int k, long x){
+		while(k > 0){
+			int parent = (k - 1) >>> shift;
+			long e = heap[parent];
+			if(x >= e)
+				break;
+			heap[k] = e;
+			k = parent;
+		}
+		heap[k] = x;
+	}
+
+	private void siftDown(int k, long x){
+		int arity = 1 << shift;
+		while(true){
+			int first = (k << shift) + 1;
+			if(first >= size)
+				break;
+			//finds the smallest child
+			int child = first;
+			long c = heap[first];
+			int last = Math.min(first + arity, size);
+			for(int j = first + 1; j < last; ++j){
+				if(heap[j] < c){
+					c = heap[j];
+					child = j;
+				}
+			}
+			if(x <= c)
+				break;
+			heap[k] = c;
+			k = child;
+		}
+		heap[k] = x;
+	}
+}
@@ -0,0 +1,106 @@
+import java.util.Arrays;
+
+/** Class representing a pairing heap of tasks, its nodes kept in parallel arrays.
+ *
+ *  Node j is the j-th offer. Its packed key is built as in PackedHeap, so equal
+ *  keys come out in offer order, and its first child and next sibling are node
+ *  numbers, so there is no object per node. offer is O(1) and poll is amortized
+ *  O(log n), by pairing the children of the root left to right and melding the
+ *  pairs right to left.
+ *
+ *  The keys must span less than 2^31 time units, see PackedHeap.fits().
+ */
+class PairingHeap implements TaskQueue {
+	private final long[] keys;		//the key column of the tasks
+	private final long base;		//the smallest key
+	private long[] key;		//the packed key of each node
+	private int[] child;		//the first child of each node, or -1
+	private int[] sibling;		//the next sibling of each node, or -1
+	private int[] taskOf;		//the task of each node
+	private int[] pairs;		//the children of the root while they are paired
+	private int nodes = 0;		//the number of nodes created
+	private int root = -1;		//the root node, or -1 if the heap is empty
+	private int size = 0;		//the number of tasks in the heap
+
+	public PairingHeap(long[] keys, long base, int initialCapacity){
+		this.keys = keys;
+		this.base = base;
+		int capacity = Math.max(1, initialCapacity);
+		key = new long[capacity];
+		child = new int[capacity];
+		sibling = new int[capacity];
+		taskOf = new int[capacity];
+		pairs = new int[16];
+	}
+
+	public void offer(int i){
+		if(nodes == key.length){
+			int capacity = nodes + (nodes >> 1) + 1;
+			key = Arrays.copyOf(key, capacity);
+			child = Arrays.copyOf(child, capacity);
+			sibling = Arrays.copyOf(sibling, capacity);
+			taskOf = Arrays.copyOf(taskOf, capacity);
+		}
+		int node = nodes;
+		key[node] = ((keys[i] - base) << 32) | nodes++;
+		child[node] = -1;
+		sibling[node] = -1;
+		taskOf[node] = i;
+		root = meld(root, node);
+		++size;
+	}
+
+	public int peek(){
+		return (root < 0) ? -1 : taskOf[root];
+	}
+
+	public int poll(){
+		if(root < 0)
+			return -1;
+		int result = taskOf[root];
+		//pairs the children left to right
+		int count = 0;
+		for(int c = child[root]; c >= 0; ){
+			int next = sibling[c];
+			int pair = c;
+			sibling[c] = -1;
+			if(next >= 0){
+				int after = sibling[next];
+				sibling[next] = -1;
+				pair = meld(c, next);
+				next = after;
+			}
+			if(count == pairs.length)
+				pairs = Arrays.copyOf(pairs, count << 1);
+			pairs[count++] = pair;
+			c = next;
+		}
+		//melds the pairs right to left
+		int r = -1;
+		while(count > 0)
+			r = meld(pairs[--count], r);
+		root = r;
+		--size;
+		return result;
+	}
+
+	public int size(){
+		return size;
+	}
+
+	/* returns the root of the meld of the trees rooted at a and b, either of which may be -1*/
+	private int meld(int a, int b){
+		if(a < 0)
+			return b;
+		if(b < 0)
+			return a;
+		if(key[b] < key[a]){
+			int swap = a;
+			a = b;
+			b = swap;
+		}
+		sibling[b] = child[a];
+		child[a] = b;
+		return a;
+	}
+}
@@ -0,0 +1,216 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/** Class parsing a task file on several threads.
+ *
+ *  The file is split into byte ranges, each boundary moved forward to the next
+ *  whitespace so no token is cut. A first parallel pass counts the tokens of each
+ *  range and notes where its first three tokens start; the counts before a range
+ *  tell which of those starts the first triple beginning in the range. A second
+ *  parallel pass parses the triples beginning in each range with a TaskReader into
+ *  a task set of its own, reading past the end of the range to finish the last one,
+ *  and the task sets are concatenated in file order. So the tasks get the same
+ *  indices as when the file is parsed on one thread.
+ *
+ *  If a range holds a badly formatted task, the file is parsed again on one thread
+ *  so the TaskFormatException reports the same line and column as TaskReader does.
+ */
+class ParallelTaskReader {
+	static final long MIN_PARALLEL_BYTES = 1 << 24;		//the smallest file worth parsing on several threads
+	private static final long MIN_RANGE_BYTES = 1 << 22;		//the smallest range of a thread
+	private static final int RANGES_PER_THREAD = 4;		//ranges per thread, to even out the work
+	private static final int BUFFER_SIZE = 1 << 16;		//bytes read at a time when counting
+
+	private final FileChannel channel;		//the task file, read only by position
+	private final String file;		//the name of the task file
+
+	private ParallelTaskReader(FileChannel channel, String file){
+		this.channel = channel;
+		this.file = file;
+	}
+
+	/** Reads the tasks of the given file into a task set on the given number of threads.
+	 */
+	static TaskSet read(String f, int threads) throws IOException, TaskFormatException{
+		try(FileChannel channel = FileChannel.open(Paths.get(f), StandardOpenOption.READ)){
+			long size = channel.size();
+			int ranges = (int) Math.max(1, Math.min((long) threads * RANGES_PER_THREAD, size / MIN_RANGE_BYTES));
+			if(threads <= 1 || ranges == 1)
+				return readSequentially(f);
+			ExecutorService executor = Executors.newFixedThreadPool(threads);
+			try{
+				return new ParallelTaskReader(channel, f).read(size, ranges, executor);
+			}
+			finally{
+				executor.shutdown();
+			}
+		}
+	}
+
+	/* splits the file into ranges, counts their tokens and parses them*/
+	private TaskSet read(long size, int ranges, ExecutorService executor) throws IOException, TaskFormatException{
+		long bounds[] = new long[ranges + 1];
+		bounds[ranges] = size;
+		for(int k = 1; k < ranges; ++k)
+			bounds[k] = Math.max(bounds[k - 1], nextWhitespace(size * k / ranges, size));
+
+		List<Future<long[]>> counts = new ArrayList<Future<long[]>>(ranges);
+		for(int k = 0; k < ranges; ++k){
+			long from = bounds[k];
+			long to = bounds[k + 1];
+			counts.add(executor.submit(() -> countTokens(from, to)));
+		}
+
+		List<Future<TaskSet>> parts = new ArrayList<Future<TaskSet>>(ranges);
+		long tokens = 0;		//the tokens before the range
+		for(int k = 0; k < ranges; ++k){
+			long count[] = get(counts.get(k));
+			//the tokens of the range which start a triple
+			int skip = (int) ((3 - tokens % 3) % 3);
+			long triples = (tokens + count[0] + 2) / 3 - (tokens + 2) / 3;
+			long start = (triples > 0) ? count[1 + skip] : 0;
+			tokens += count[0];
+			if(triples > Integer.MAX_VALUE)
+				throw new IOException(file + " has too many tasks for a task set");
+			parts.add(executor.submit(() -> parse(start, (int) triples)));
+		}
+		if(tokens % 3 != 0)
+			return readSequentially(file);		//the last task is incomplete
+
+		TaskSet sets[] = new TaskSet[ranges];
+		try{
+			for(int k = 0; k < ranges; ++k)
+				sets[k] = get(parts.get(k));
+		}
+		catch(TaskFormatException formatException){
+			return readSequentially(file);
+		}
+		return TaskSet.concat(sets);
+	}
+
+	/* returns the position of the first whitespace at or after position, or size*/
+	private long nextWhitespace(long position, long size) throws IOException{
+		ByteBuffer buffer = ByteBuffer.allocate(256);
+		while(position < size){
+			buffer.clear();
+			int n = channel.read(buffer, position);
+			if(n < 0)
+				break;
+			for(int b = 0; b < n; ++b)
+				if(TaskReader.isWhitespace(buffer.get(b)))
+					return position + b;
+			position += n;
+		}
+		return size;
+	}
+
+	/** Counts the tokens between from and to, which are at whitespace or at the ends
+	 *  of the file. Returns the count followed by the positions of the first three
+	 *  tokens.
+	 */
+	private long[] countTokens(long from, long to) throws IOException{
+		long count[] = new long[4];
+		ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		boolean inToken = false;
+		for(long position = from; position < to; ){
+			buffer.clear();
+			buffer.limit((int) Math.min(BUFFER_SIZE, to - position));
+			int n = channel.read(buffer, position);
+			if(n < 0)
+				break;
+			byte bytes[] = buffer.array();
+			for(int b = 0; b < n; ++b){
+				boolean whitespace = TaskReader.isWhitespace(bytes[b]);
+				if(!whitespace && !inToken){
+					if(count[0] < 3)
+						count[1 + (int) count[0]] = position + b;
+					++count[0];
+				}
+				inToken = !whitespace;
+			}
+			position += n;
+		}
+		return count;
+	}
+
+	/* parses the given number of tasks from the position of a task name*/
+	private TaskSet parse(long start, int triples) throws IOException, TaskFormatException{
+		TaskSet tasks = new TaskSet(Math.max(1, triples));
+		TaskReader reader = new TaskReader(new PositionChannel(channel, start));
+		for(int t = 0; t < triples; ++t){
+			if(!reader.next())
+				throw new TaskFormatException("task file ends inside a task", 0, 0);
+			reader.addTo(tasks);
+		}
+		return tasks;
+	}
+
+	/* returns the result of the future, throwing what the task threw*/
+	private static <T> T get(Future<T> future) throws IOException, TaskFormatException{
+		try{
+			return future.get();
+		}
+		catch(InterruptedException interruptedException){
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted while parsing", interruptedException);
+		}
+		catch(ExecutionException executionException){
+			Throwable cause = executionException.getCause();
+			if(cause instanceof TaskFormatException)
+				throw (TaskFormatException) cause;
+			if(cause instanceof IOException)
+				throw (IOException) cause;
+			if(cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			throw new IOException(cause);
+		}
+	}
+
+	/* parses the whole file on this thread*/
+	private static TaskSet readSequentially(String f) throws IOException, TaskFormatException{
+		TaskSet tasks = new TaskSet();
+		try(TaskReader reader = new TaskReader(f)){
+			while(reader.next())
+				reader.addTo(tasks);
+		}
+		return tasks;
+	}
+
+	/** Class reading a shared file channel from a position of its own, so several
+	 *  readers can read the same channel at once.
+	 */
+	private static class PositionChannel implements ReadableByteChannel {
+		private final FileChannel channel;		//the shared channel
+		private long position;		//the position of the next read
+
+		PositionChannel(FileChannel channel, long position){
+			this.channel = channel;
+			this.position = position;
+		}
+
+		public int read(ByteBuffer dst) throws IOException{
+			int n = channel.read(dst, position);
+			if(n > 0)
+				position += n;
+			return n;
+		}
+
+		public boolean isOpen(){
+			return channel.isOpen();
+		}
+
+		public void close(){
+		}
+	}
+}
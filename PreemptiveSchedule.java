@@ -0,0 +1,105 @@
+import java.util.Arrays;
+
+/** Class representing a preemptive schedule of a task set whose tasks take several
+ *  time units, on m identical cores.
+ *
+ *  The schedule is a list of segments in the order in which they end: segment i runs
+ *  task getTask(i) on core getCore(i) from getStart(i) to getEnd(i). A task is split
+ *  into several segments when it is preempted. If global EDF misses a deadline, the
+ *  segments are those ended before getMissedTask() was found to miss it; on more than one
+ *  core the task set may still have a feasible schedule.
+ */
+class PreemptiveSchedule {
+	private final TaskSet tasks;		//the scheduled task set
+	private final int cores;		//the number of cores
+	private int[] task;		//the task of each segment
+	private long[] start;		//the start time of each segment
+	private long[] end;		//the end time of each segment
+	private int[] core;		//the core of each segment
+	private int size = 0;		//the number of segments
+	private long preemptions = 0;		//the number of times a running task was preempted
+	private long migrations = 0;		//the number of times a task resumed on another core
+	private int missedTask = -1;		//the task which misses its deadline, or -1
+
+	public PreemptiveSchedule(TaskSet tasks, int m){
+		this.tasks = tasks;
+		this.cores = m;
+		int capacity = Math.max(1, tasks.size());
+		task = new int[capacity];
+		start = new long[capacity];
+		end = new long[capacity];
+		core = new int[capacity];
+	}
+
+	/* appends a segment of task i running on core c from s to e*/
+	void add(int i, long s, long e, int c){
+		if(size == task.length){
+			int newCapacity = size + (size >> 1) + 1;
+			task = Arrays.copyOf(task, newCapacity);
+			start = Arrays.copyOf(start, newCapacity);
+			end = Arrays.copyOf(end, newCapacity);
+			core = Arrays.copyOf(core, newCapacity);
+		}
+		task[size] = i;
+		start[size] = s;
+		end[size] = e;
+		core[size++] = c;
+	}
+	/* counts a preemption*/
+	void preempted(){
+		++preemptions;
+	}
+	/* counts a migration*/
+	void migrated(){
+		++migrations;
+	}
+	/* records that task i misses its deadline*/
+	void setMissedTask(int i){
+		missedTask = i;
+	}
+
+	/* returns whether every task meets its deadline in this schedule*/
+	public boolean isFeasible(){
+		return missedTask < 0;
+	}
+	/* gets the task which misses its deadline, or -1 if the schedule is feasible*/
+	public int getMissedTask(){
+		return missedTask;
+	}
+	/* gets the scheduled task set*/
+	public TaskSet getTasks(){
+		return tasks;
+	}
+	/* gets the number of cores*/
+	public int getCores(){
+		return cores;
+	}
+	/* gets the number of segments*/
+	public int size(){
+		return size;
+	}
+	/* gets the task of segment i*/
+	public int getTask(int i){
+		return task[i];
+	}
+	/* gets the start time of segment i*/
+	public long getStart(int i){
+		return start[i];
+	}
+	/* gets the end time of segment i*/
+	public long getEnd(int i){
+		return end[i];
+	}
+	/* gets the core of segment i*/
+	public int getCore(int i){
+		return core[i];
+	}
+	/* gets the number of times a running task was preempted*/
+	public long getPreemptions(){
+		return preemptions;
+	}
+	/* gets the number of times a task resumed on another core than the one it last ran on*/
+	public long getMigrations(){
+		return migrations;
+	}
+}
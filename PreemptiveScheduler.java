@@ -0,0 +1,201 @@
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/** Class constructing preemptive global EDF schedules of tasks with execution times.
+ *
+ *  Every task has a release time, a deadline and an execution time of one or more time
+ *  units, and may be preempted and resumed on any core. At any time the at most m released
+ *  unfinished tasks with the earliest deadlines run. The schedule only changes at a release
+ *  or a completion, so the engine jumps from event to event: the running tasks are kept in
+ *  two indexed heaps, by completion time and by latest deadline, and the waiting tasks in a
+ *  deadline heap, so each release, completion and preemption costs O(log n) and the total
+ *  is O((n + preemptions) log n) whatever the execution times. A resumed task keeps its last
+ *  core when that core is free, otherwise it migrates.
+ *
+ *  A task misses its deadline if, when it is started or resumed, the rest of its execution
+ *  time does not fit before its deadline; the first such task ends the schedule. EDF is
+ *  optimal on one core, so there a miss means that no feasible schedule exists. Global
+ *  EDF is not optimal on more cores: on 2 cores, tasks a and b released at 0 with deadline
+ *  2 and time 1 run first, and then c released at 0 with deadline 3 and time 3 misses its
+ *  deadline, although c could run on one core while a and b run on the other. A miss on
+ *  more than one core is therefore reported as a miss of global EDF, not as infeasibility.
+ *
+ *  Usage: java PreemptiveScheduler file1 file2 m
+ *  where file1 holds name, release time, deadline and execution time quadruples, and the
+ *  segments are written to file2.txt as "name start end core" lines, replacing an older
+ *  file2.txt atomically.
+ */
+class PreemptiveScheduler {
+	private PreemptiveScheduler(){}
+
+	/** Returns the preemptive global EDF schedule of the given tasks on m cores.
+	 *
+	 *  @throws IllegalArgumentException if m is less than 1
+	 */
+	static PreemptiveSchedule schedule(TaskSet tasks, int m){
+		if(m < 1)
+			throw new IllegalArgumentException("m = " + m + " cores");
+		int n = tasks.size();
+		PreemptiveSchedule schedule = new PreemptiveSchedule(tasks, m);
+		int sorted[] = tasks.sortByRelTime();
+		int next = 0;		//the position in sorted of the next task to be released
+
+		long remaining[] = new long[n];		//the execution time left at the start of the current segment
+		long segmentStart[] = new long[n];		//the start of the current segment of each running task
+		long finishAt[] = new long[n];		//the completion time of each running task
+		long latestFirst[] = new long[n];		//the negated deadline of each task
+		int core[] = new int[n];		//the core of each running task
+		int lastCore[] = new int[n];		//the core each task last ran on, or -1
+		for(int i = 0; i < n; ++i){
+			latestFirst[i] = -tasks.getDeadline(i);
+			lastCore[i] = -1;
+		}
+
+		//the waiting tasks by deadline, and the running tasks by completion time and by latest deadline
+		IntHeap waiting = new IntHeap(11, tasks.deadlines(), tasks.relTimes());
+		IndexedHeap byFinish = new IndexedHeap(n, finishAt);
+		IndexedHeap byDeadline = new IndexedHeap(n, latestFirst);
+
+		//the free cores, freeCores[0..freeSize) with the position of each core in it, or -1
+		int freeCores[] = new int[m];
+		int freePos[] = new int[m];
+		int freeSize = m;
+		for(int c = 0; c < m; ++c){
+			freeCores[c] = m - 1 - c;
+			freePos[m - 1 - c] = c;
+		}
+
+		long time = 0;
+		while(true){
+			//ends the segments of the tasks completed by now
+			while(byFinish.size() > 0 && finishAt[byFinish.peek()] <= time){
+				int task = byFinish.poll();
+				byDeadline.remove(task);
+				schedule.add(task, segmentStart[task], finishAt[task], core[task]);
+				freePos[core[task]] = freeSize;
+				freeCores[freeSize++] = core[task];
+			}
+			//moves the tasks released by now to the waiting tasks
+			while(next < n && tasks.getRelTime(sorted[next]) <= time){
+				int task = sorted[next++];
+				remaining[task] = tasks.getExecTime(task);
+				waiting.offer(task);
+			}
+			//runs the waiting tasks with earlier deadlines than a running task
+			while(waiting.size() > 0){
+				int task = waiting.peek();
+				int c;
+				if(byFinish.size() < m){
+					waiting.poll();
+					//keeps the last core of the task if it is free
+					c = (lastCore[task] >= 0 && freePos[lastCore[task]] >= 0) ? lastCore[task] : freeCores[freeSize - 1];
+					int last = freeCores[--freeSize];
+					freeCores[freePos[c]] = last;
+					freePos[last] = freePos[c];
+					freePos[c] = -1;
+				}
+				else{
+					int victim = byDeadline.peek();
+					if(tasks.getDeadline(task) >= tasks.getDeadline(victim))
+						break;
+					waiting.poll();
+					//preempts the running task with the latest deadline and takes its core
+					byFinish.remove(victim);
+					byDeadline.remove(victim);
+					schedule.add(victim, segmentStart[victim], time, core[victim]);
+					schedule.preempted();
+					remaining[victim] = finishAt[victim] - time;
+					waiting.offer(victim);
+					c = core[victim];
+				}
+				//if the rest of the task no longer fits before its deadline, global EDF misses it
+				if(remaining[task] > tasks.getDeadline(task) - time){
+					schedule.setMissedTask(task);
+					return schedule;
+				}
+				if(lastCore[task] >= 0 && lastCore[task] != c)
+					schedule.migrated();
+				core[task] = c;
+				lastCore[task] = c;
+				segmentStart[task] = time;
+				finishAt[task] = time + remaining[task];
+				byFinish.offer(task);
+				byDeadline.offer(task);
+			}
+			//jumps to the next release or completion
+			long nextRelease = (next < n) ? tasks.getRelTime(sorted[next]) : Long.MAX_VALUE;
+			long nextFinish = (byFinish.size() > 0) ? finishAt[byFinish.peek()] : Long.MAX_VALUE;
+			if(nextRelease == Long.MAX_VALUE && nextFinish == Long.MAX_VALUE)
+				return schedule;
+			time = Math.min(nextRelease, nextFinish);
+		}
+	}
+
+	/** Reads a task set whose tasks have an execution time as a fourth field.
+	 */
+	static TaskSet readTaskSet(String f) throws IOException, TaskFormatException{
+		TaskSet tasks = new TaskSet();
+		try(TaskReader reader = new TaskReader(f)){
+			while(reader.nextWithExecTime())
+				reader.addTo(tasks);
+		}
+		return tasks;
+	}
+
+	public static void main(String[] args){
+		int m = 0;
+		try{
+			if(args.length == 3)
+				m = Integer.parseInt(args[2]);
+		}
+		catch(NumberFormatException numberFormatException){
+			//m stays 0, so the usage is printed
+		}
+		if(m < 1){
+			System.err.println("Usage: java PreemptiveScheduler file1 file2 m");
+			System.err.println("where m is at least 1");
+			return;
+		}
+		String file1 = args[0];
+		String file2 = args[1];
+		TaskSet tasks;
+		try{
+			tasks = readTaskSet(file1);
+		}
+		catch(NoSuchFileException fileNotFoundException){
+			System.err.printf("%s does not exist.\n", fileNotFoundException.getFile());
+			return;
+		}
+		catch(TaskFormatException formatException){
+			System.out.printf("%s improperly formatted at line %d, column %d: %s.\n", file1,
+					formatException.getLine(), formatException.getColumn(), formatException.getMessage());
+			return;
+		}
+		catch(IOException ioException){
+			System.out.printf("Erro reading from %s.\n", file1);
+			return;
+		}
+
+		PreemptiveSchedule schedule = schedule(tasks, m);
+		if(!schedule.isFeasible()){
+			if(m == 1)
+				System.out.printf("No feasible schedule exists on 1 core of %s: task %s misses its deadline.\n",
+						file1, tasks.getName(schedule.getMissedTask()));
+			else
+				System.out.printf("Global EDF misses the deadline of task %s on %d cores of %s.\n",
+						tasks.getName(schedule.getMissedTask()), m, file1);
+			return;
+		}
+		//writes file2 to a temporary file first and renames it, replacing an older file2
+		try{
+			ScheduleWriter.write(schedule, Paths.get(file2 + ".txt"));
+			System.out.printf("There is a feasible schedule on %d cores of %s", m, file1);
+			System.out.printf(" with %d preemptions and %d migrations.\n", schedule.getPreemptions(), schedule.getMigrations());
+		}
+		catch(IOException ioException){
+			System.out.printf("Erro writing to %s: %s.\n", file2, ioException);
+		}
+	}
+}
@@ -0,0 +1,46 @@
+/** Class handing out the tasks of a task set in release order from an array
+ *  sorted by TaskSet.sortByRelTime, by moving a cursor over it.
+ *
+ *  It replaces heap1 when the tasks are only ever taken in release order:
+ *  peek and poll are O(1) and there is nothing to sift.
+ */
+class ReleaseCursor implements TaskQueue {
+	private int[] sorted;		//the tasks sorted by release time
+	private int end;		//the position after the last task
+	private int cursor;		//the position of the next task
+
+	public ReleaseCursor(int[] sorted, int end){
+		this(sorted, 0, end);
+	}
+
+	/* hands out the tasks of sorted from position from to position end - 1*/
+	public ReleaseCursor(int[] sorted, int from, int end){
+		this.sorted = sorted;
+		this.cursor = from;
+		this.end = end;
+	}
+
+	/* hands out the tasks of sorted from position from to position end - 1 from now on*/
+	void reset(int[] sorted, int from, int end){
+		this.sorted = sorted;
+		this.cursor = from;
+		this.end = end;
+	}
+
+	/* the sorted tasks are fixed on creation*/
+	public void offer(int i){
+		throw new UnsupportedOperationException();
+	}
+
+	public int peek(){
+		return (cursor < end) ? sorted[cursor] : -1;
+	}
+
+	public int poll(){
+		return (cursor < end) ? sorted[cursor++] : -1;
+	}
+
+	public int size(){
+		return end - cursor;
+	}
+}
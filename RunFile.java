@@ -0,0 +1,155 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/** Class reading a run of an external sort: a temporary file of tasks in release
+ *  order, each stored as its release time, its deadline, the length of its name
+ *  and the bytes of its name. The static methods write runs.
+ */
+class RunFile implements Closeable {
+	private static final int HEADER = 8 + 8 + 4;		//the bytes of a record before the name
+
+	private final FileChannel channel;		//the channel of the run
+	private final ByteBuffer buffer;		//the read buffer
+	private boolean eof = false;		//whether the end of the channel has been reached
+	private long relTime;		//the release time of the current task
+	private long deadline;		//the deadline of the current task
+	private byte[] name = new byte[16];		//the name of the current task
+	private int nameLength;		//the number of bytes of the name
+
+	public RunFile(Path file, int bufferSize) throws IOException{
+		channel = FileChannel.open(file, StandardOpenOption.READ);
+		buffer = ByteBuffer.allocateDirect(bufferSize);
+		buffer.flip();
+	}
+
+	/** Reads the next task of the run. Returns false at the end of the run.
+	 */
+	public boolean next() throws IOException{
+		if(!fill(HEADER))
+			return false;
+		relTime = buffer.getLong();
+		deadline = buffer.getLong();
+		nameLength = buffer.getInt();
+		if(nameLength > name.length)
+			name = new byte[Math.max(nameLength, name.length << 1)];
+		for(int read = 0; read < nameLength; ){
+			if(!fill(1))
+				throw new IOException("run ends inside a task name");
+			int count = Math.min(nameLength - read, buffer.remaining());
+			buffer.get(name, read, count);
+			read += count;
+		}
+		return true;
+	}
+
+	/* makes at least n bytes available, up to the buffer size, and returns false at the end of the run*/
+	private boolean fill(int n) throws IOException{
+		while(buffer.remaining() < n && !eof){
+			buffer.compact();
+			eof = channel.read(buffer) < 0;
+			buffer.flip();
+		}
+		if(buffer.remaining() >= n)
+			return true;
+		if(buffer.hasRemaining())
+			throw new IOException("run ends inside a task");
+		return false;
+	}
+
+	/* gets the release time of the current task*/
+	public long getRelTime(){
+		return relTime;
+	}
+	/* gets the deadline of the current task*/
+	public long getDeadline(){
+		return deadline;
+	}
+	/* gets the name of the current task*/
+	public String name(){
+		return new String(name, 0, nameLength, StandardCharsets.US_ASCII);
+	}
+
+	/** Copies the current task to the writer.
+	 */
+	void copyTo(Writer writer) throws IOException{
+		writer.write(name, 0, nameLength, relTime, deadline);
+	}
+
+	public void close() throws IOException{
+		channel.close();
+	}
+
+	/** Writes the tasks of the task set in the order of sorted to a new run file.
+	 */
+	static void write(TaskSet tasks, int[] sorted, Path file) throws IOException{
+		try(Writer writer = new Writer(file)){
+			byte names[] = tasks.names();
+			int nameStart[] = tasks.nameStarts();
+			for(int k = 0; k < tasks.size(); ++k){
+				int i = sorted[k];
+				writer.write(names, nameStart[i], nameStart[i + 1] - nameStart[i], tasks.getRelTime(i), tasks.getDeadline(i));
+			}
+		}
+	}
+
+	/** Class appending tasks to a run file.
+	 */
+	static class Writer implements Closeable {
+		private final FileChannel channel;		//the channel of the run
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);		//the write buffer
+
+		Writer(Path file) throws IOException{
+			channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING);
+		}
+
+		/* appends a task whose name is the len bytes of name starting at off*/
+		void write(byte[] name, int off, int len, long r, long d) throws IOException{
+			if(buffer.remaining() < HEADER)
+				flush();
+			buffer.putLong(r);
+			buffer.putLong(d);
+			buffer.putInt(len);
+			while(len > 0){
+				if(!buffer.hasRemaining())
+					flush();
+				int count = Math.min(len, buffer.remaining());
+				buffer.put(name, off, count);
+				off += count;
+				len -= count;
+			}
+		}
+
+		private void flush() throws IOException{
+			buffer.flip();
+			while(buffer.hasRemaining())
+				channel.write(buffer);
+			buffer.clear();
+		}
+
+		public void close() throws IOException{
+			try{
+				flush();
+			}
+			finally{
+				channel.close();
+			}
+		}
+	}
+
+	/* deletes the run file, if it exists*/
+	static void delete(Path file){
+		try{
+			Files.deleteIfExists(file);
+		}
+		catch(IOException ioException){
+			file.toFile().deleteOnExit();
+		}
+	}
+}
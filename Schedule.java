@@ -0,0 +1,102 @@
+/** Class representing a schedule of a task set on m identical cores.
+ *
+ *  The tasks are listed in the order in which they are executed: the i-th entry
+ *  is task getTask(i), which runs on core getCore(i) in the time unit starting at
+ *  getStart(i). If the
+ *  task set has no feasible schedule, the entries are the tasks scheduled before
+ *  getMissedTask() was found to miss its deadline.
+ */
+class Schedule implements ScheduleView {
+	private TaskSet tasks;		//the scheduled task set
+	private int cores;		//the number of cores
+	private int[] order;		//the tasks in execution order
+	private long[] start;		//the start time of each entry of order
+	private int[] core;		//the core of each entry of order
+	private final int offset;		//the position of the first entry in order and start
+	private int size = 0;		//the number of scheduled tasks
+	private int missedTask = -1;		//the task which misses its deadline, or -1
+
+	public Schedule(TaskSet tasks, int m){
+		this(tasks, m, new int[tasks.size()], new long[tasks.size()], new int[tasks.size()], 0);
+	}
+
+	private Schedule(TaskSet tasks, int m, int[] order, long[] start, int[] core, int offset){
+		this.tasks = tasks;
+		this.cores = m;
+		this.order = order;
+		this.start = start;
+		this.core = core;
+		this.offset = offset;
+	}
+
+	/** Returns an empty schedule whose entries are stored in this schedule from the
+	 *  given position on, so that independent parts of a schedule can be built at
+	 *  the same time and end up concatenated.
+	 */
+	Schedule segment(int position){
+		return new Schedule(tasks, cores, order, start, core, offset + position);
+	}
+
+	/** Empties the schedule for the given task set and number of cores, keeping its
+	 *  arrays if they are large enough, so that a Scheduler can reuse it.
+	 */
+	void reset(TaskSet tasks, int m){
+		if(order.length < tasks.size()){
+			order = new int[tasks.size()];
+			start = new long[tasks.size()];
+			core = new int[tasks.size()];
+		}
+		this.tasks = tasks;
+		this.cores = m;
+		size = 0;
+		missedTask = -1;
+	}
+
+	/* appends task i starting at time t on core c*/
+	void add(int i, long t, int c){
+		order[offset + size] = i;
+		start[offset + size] = t;
+		core[offset + size++] = c;
+	}
+	/* sets the number of scheduled tasks after they are stored by segments*/
+	void setSize(int size){
+		this.size = size;
+	}
+	/* records that task i misses its deadline*/
+	void setMissedTask(int i){
+		missedTask = i;
+	}
+
+	/* returns whether every task meets its deadline*/
+	public boolean isFeasible(){
+		return missedTask < 0;
+	}
+	/* gets the task which misses its deadline, or -1 if the schedule is feasible*/
+	public int getMissedTask(){
+		return missedTask;
+	}
+	/* gets the scheduled task set*/
+	public TaskSet getTasks(){
+		return tasks;
+	}
+	/* gets the number of cores*/
+	public int getCores(){
+		return cores;
+	}
+	/* gets the number of scheduled tasks*/
+	public int size(){
+		return size;
+	}
+	/* gets the i-th scheduled task*/
+	public int getTask(int i){
+		return order[offset + i];
+	}
+	/* gets the start time of the i-th scheduled task*/
+	public long getStart(int i){
+		return start[offset + i];
+	}
+	/* gets the core of the i-th scheduled task*/
+	public int getCore(int i){
+		return core[offset + i];
+	}
+}
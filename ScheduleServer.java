@@ -0,0 +1,338 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/** Class serving schedules over a local socket, so a scheduling run costs neither a
+ *  JVM start nor a JIT warm-up.
+ *
+ *  It listens on a Unix domain socket, or on a loopback port, and serves each
+ *  connection on a thread of its own with a Scheduler of its own. A connection sends
+ *  any number of requests, each one line followed, for inline tasks, by the bytes of
+ *  a task file:
+ *
+ *    file m path          schedules the task file, text or TaskSetFile, at path
+ *    tasks m length       schedules the task file made of the next length bytes
+ *
+ *  and each is answered by one line, followed for a feasible schedule by its lines:
+ *
+ *    feasible n           then the n lines "name start core" of the schedule
+ *    infeasible k s e c   k tasks must run in [s, e), which has room for c
+ *    error message        the request failed, the connection stays usable
+ *
+ *  The bytes of inline tasks are consumed before m is checked, so a rejected request
+ *  never leaves them to be read as requests; a tasks request whose length is missing
+ *  or not a number is answered by an error and the connection is closed.
+ *
+ *  Parsed task sets are cached by the SHA-256 of their bytes, the least recently
+ *  used dropped first once they hold more than the cache bytes, so asking again
+ *  with another m skips the parse. A file is still read whole to be hashed, so the
+ *  server is meant for the many small task sets, not for files of several GB: a
+ *  task file, inline or not, longer than the request bytes is refused.
+ *
+ *  Usage: java ScheduleServer [-socket path | -port port] [-cache bytes] [-request bytes]
+ */
+public class ScheduleServer {
+	static final int DEFAULT_PORT = 7077;		//the loopback port by default
+	static final long DEFAULT_CACHE_BYTES = 256L << 20;		//the bytes of task sets cached by default
+	static final int DEFAULT_MAX_REQUEST = 64 << 20;		//the longest task file by default
+	private static final int MAX_LINE = 1 << 16;		//the longest request line
+
+	private final ServerSocketChannel server;		//the listening socket
+	private final Map<String, TaskSet> cache;		//the parsed task sets by hash, least recently used first
+	private final long maxCacheBytes;		//the most bytes the cached task sets may hold
+	private final int maxRequest;		//the longest task file accepted
+	private long cacheBytes = 0;		//the bytes held by the cached task sets
+	private final ExecutorService connections = Executors.newCachedThreadPool();		//a thread per connection
+
+	public ScheduleServer(SocketAddress address, long maxCacheBytes, int maxRequest) throws IOException{
+		if(maxCacheBytes < 0 || maxRequest < 0)
+			throw new IllegalArgumentException("negative cache or request bytes");
+		server = (address instanceof UnixDomainSocketAddress) ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+				: ServerSocketChannel.open();
+		server.bind(address);
+		cache = new LinkedHashMap<String, TaskSet>(16, 0.75f, true);
+		this.maxCacheBytes = maxCacheBytes;
+		this.maxRequest = maxRequest;
+	}
+
+	/** Accepts connections until the socket is closed.
+	 */
+	public void serve() throws IOException{
+		try{
+			while(true){
+				SocketChannel connection = server.accept();
+				connections.execute(() -> serve(connection));
+			}
+		}
+		finally{
+			connections.shutdownNow();
+		}
+	}
+
+	/* answers the requests of a connection until it is closed*/
+	private void serve(SocketChannel connection){
+		Scheduler scheduler = new Scheduler();
+		try(connection;
+				InputStream in = new BufferedInputStream(Channels.newInputStream(connection));
+				OutputStream out = new BufferedOutputStream(Channels.newOutputStream(connection), 1 << 16)){
+			String request;
+			while((request = readLine(in)) != null){
+				try{
+					if(!answer(request, in, out, scheduler)){
+						out.flush();
+						break;
+					}
+				}
+				catch(NoSuchFileException fileNotFoundException){
+					error(out, fileNotFoundException.getFile() + " does not exist");
+				}
+				catch(TaskFormatException formatException){
+					error(out, "improperly formatted at line " + formatException.getLine() + ", column "
+							+ formatException.getColumn() + ": " + formatException.getMessage());
+				}
+				catch(IllegalArgumentException argumentException){
+					error(out, argumentException.getMessage());
+				}
+				out.flush();
+			}
+		}
+		catch(IOException ioException){
+			//the client went away
+		}
+	}
+
+	/** Answers one request, and returns false if the connection must be closed because
+	 *  the length of inline tasks is unknown, so the next request cannot be found.
+	 */
+	private boolean answer(String request, InputStream in, OutputStream out, Scheduler scheduler)
+			throws IOException, TaskFormatException{
+		String fields[] = request.trim().split(" +", 3);
+		TaskSet tasks;
+		int m;
+		if(fields[0].equals("tasks")){
+			//consumes the tasks before anything else is checked, so they are never taken for requests
+			int length = -1;
+			if(fields.length == 3){
+				try{
+					length = Integer.parseInt(fields[2]);
+				}
+				catch(NumberFormatException numberFormatException){
+					//the length is unknown
+				}
+			}
+			if(length < 0){
+				error(out, "expected tasks m length, with a length of 0 or more; closing the connection");
+				return false;
+			}
+			if(length > maxRequest){
+				in.skipNBytes(length);
+				throw new IllegalArgumentException("task file of " + length + " bytes is longer than " + maxRequest);
+			}
+			byte bytes[] = in.readNBytes(length);
+			m = cores(fields[1]);
+			tasks = taskSet(bytes, null);
+		}
+		else if(fields[0].equals("file")){
+			if(fields.length != 3)
+				throw new IllegalArgumentException("expected file m path");
+			m = cores(fields[1]);
+			tasks = taskSet(Paths.get(fields[2]));
+		}
+		else{
+			throw new IllegalArgumentException("unknown request " + fields[0]);
+		}
+
+		Schedule schedule = scheduler.schedule(tasks, m);
+		if(!schedule.isFeasible()){
+			Feasibility overload = scheduler.getOverload();
+			out.write(("infeasible " + overload.getWindowTasks().length + " " + overload.getWindowStart() + " "
+					+ overload.getWindowEnd() + " " + overload.getCapacity() + "\n").getBytes(StandardCharsets.US_ASCII));
+			return true;
+		}
+		out.write(("feasible " + schedule.size() + "\n").getBytes(StandardCharsets.US_ASCII));
+		byte line[] = new byte[64];
+		for(int i = 0; i < schedule.size(); ++i){
+			int task = schedule.getTask(i);
+			int nameLength = tasks.nameLength(task);
+			if(line.length < nameLength + 43)
+				line = new byte[nameLength + 43];
+			int length = tasks.copyName(task, line, 0);
+			line[length++] = ' ';
+			length = putNumber(line, length, schedule.getStart(i));
+			line[length++] = ' ';
+			length = putNumber(line, length, schedule.getCore(i));
+			line[length++] = '\n';
+			out.write(line, 0, length);
+		}
+		return true;
+	}
+
+	/* parses the number of cores of a request*/
+	private static int cores(String field){
+		int m = Integer.parseInt(field);
+		if(m < 1)
+			throw new IllegalArgumentException("m = " + m + " cores");
+		return m;
+	}
+
+	/* returns the task set of the file, read from the cache when its bytes have been seen*/
+	private TaskSet taskSet(Path file) throws IOException, TaskFormatException{
+		long length = Files.size(file);
+		if(length > maxRequest)
+			throw new IllegalArgumentException(file + " has " + length + " bytes, more than " + maxRequest);
+		return taskSet(Files.readAllBytes(file), file);
+	}
+
+	/** Returns the task set of the given bytes of a task file, from the cache when the
+	 *  same bytes have been parsed before. A TaskSetFile is loaded from its file.
+	 */
+	private TaskSet taskSet(byte[] bytes, Path file) throws IOException, TaskFormatException{
+		String hash = hash(bytes);
+		synchronized(cache){
+			TaskSet tasks = cache.get(hash);
+			if(tasks != null)
+				return tasks;
+		}
+		TaskSet tasks;
+		if(file != null && TaskSetFile.isTaskSetFile(file)){
+			tasks = TaskSetFile.read(file);
+			tasks.isSortedByRelTime();		//counts the statistics before the task set is shared
+		}
+		else{
+			tasks = new TaskSet();
+			try(TaskReader reader = new TaskReader(Channels.newChannel(new ByteArrayInputStream(bytes)))){
+				while(reader.next())
+					reader.addTo(tasks);
+			}
+			tasks.trimToSize();
+		}
+		long memory = tasks.memoryBytes();
+		synchronized(cache){
+			if(memory <= maxCacheBytes && !cache.containsKey(hash)){
+				cache.put(hash, tasks);
+				cacheBytes += memory;
+				//drops the least recently used task sets until the cache fits
+				Iterator<TaskSet> eldest = cache.values().iterator();
+				while(cacheBytes > maxCacheBytes){
+					cacheBytes -= eldest.next().memoryBytes();
+					eldest.remove();
+				}
+			}
+		}
+		return tasks;
+	}
+
+	/* returns the SHA-256 of the bytes in hexadecimal*/
+	private static String hash(byte[] bytes){
+		try{
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+		}
+		catch(NoSuchAlgorithmException algorithmException){
+			throw new IllegalStateException(algorithmException);
+		}
+	}
+
+	/* reads a request line, returns null at the end of the connection*/
+	private static String readLine(InputStream in) throws IOException{
+		StringBuilder line = new StringBuilder();
+		int b;
+		while((b = in.read()) != '\n'){
+			if(b < 0){
+				if(line.length() == 0)
+					return null;
+				throw new EOFException("connection closed inside a request");
+			}
+			if(line.length() == MAX_LINE)
+				throw new IOException("request line longer than " + MAX_LINE + " bytes");
+			if(b != '\r')
+				line.append((char) b);
+		}
+		return line.toString();
+	}
+
+	/* writes an error answer*/
+	private static void error(OutputStream out, String message) throws IOException{
+		out.write(("error " + message.replace('\n', ' ') + "\n").getBytes(StandardCharsets.US_ASCII));
+	}
+
+	/* encodes a non-negative number in decimal at off and returns the offset after it*/
+	private static int putNumber(byte[] line, int off, long value){
+		int end = off + 1;
+		for(long rest = value / 10; rest != 0; rest /= 10)
+			++end;
+		int k = end;
+		do{
+			line[--k] = (byte) ('0' + value % 10);
+			value /= 10;
+		}while(value != 0);
+		return end;
+	}
+
+	/** Stops accepting connections.
+	 */
+	public void close() throws IOException{
+		server.close();
+	}
+
+	public static void main(String[] args){
+		SocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), DEFAULT_PORT);
+		Path socket = null;
+		long cacheBytes = DEFAULT_CACHE_BYTES;
+		int maxRequest = DEFAULT_MAX_REQUEST;
+		try{
+			for(int i = 0; i < args.length; i += 2){
+				if(i + 1 == args.length)
+					throw new IllegalArgumentException("missing value of option " + args[i]);
+				switch(args[i]){
+				case "-socket": socket = Paths.get(args[i + 1]); address = UnixDomainSocketAddress.of(socket); break;
+				case "-port": address = new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(args[i + 1])); break;
+				case "-cache": cacheBytes = Long.parseLong(args[i + 1]); break;
+				case "-request": maxRequest = Integer.parseInt(args[i + 1]); break;
+				default: throw new IllegalArgumentException("unknown option " + args[i]);
+				}
+			}
+			if(cacheBytes < 0 || maxRequest < 0)
+				throw new IllegalArgumentException("the cache and request bytes must not be negative");
+		}
+		catch(IllegalArgumentException argumentException){
+			System.err.println(argumentException.getMessage());
+			System.err.println("Usage: java ScheduleServer [-socket path | -port port] [-cache bytes] [-request bytes]");
+			System.exit(2);
+		}
+		try{
+			if(socket != null)
+				Files.deleteIfExists(socket);		//left by a server which did not shut down
+			ScheduleServer server = new ScheduleServer(address, cacheBytes, maxRequest);
+			System.out.printf("Serving schedules on %s.\n", address);
+			server.serve();
+		}
+		catch(IOException ioException){
+			System.out.printf("Erro serving on %s: %s.\n", address, ioException);
+		}
+	}
+}
@@ -0,0 +1,14 @@
+import java.io.IOException;
+
+/** Interface of the receiver of the tasks run by an OnlineScheduler, in the order
+ *  in which they run.
+ */
+interface ScheduleSink {
+	/** Receives a task run in the time unit starting at start on the given core.
+	 */
+	void run(String name, long start, int core) throws IOException;
+
+	/** Receives a task which can no longer finish by its deadline; it is dropped.
+	 */
+	void missed(String name, long relTime, long deadline) throws IOException;
+}
@@ -0,0 +1,28 @@
+/** Interface of a schedule of a task set on m identical cores as it is read.
+ *
+ *  The tasks are listed in the order in which they are executed: the i-th entry
+ *  is task getTask(i), which runs on core getCore(i) in the time unit starting at
+ *  getStart(i). Schedule stores them as the schedulers append them, ChunkedSchedule
+ *  as IncrementalScheduler patches them.
+ */
+interface ScheduleView {
+	/** Returns whether every task meets its deadline.
+	 */
+	boolean isFeasible();
+
+	/** Returns the task which misses its deadline, or -1 if the schedule is feasible.
+	 */
+	int getMissedTask();
+
+	TaskSet getTasks();
+
+	int getCores();
+
+	int size();
+
+	int getTask(int i);
+
+	long getStart(int i);
+
+	int getCore(int i);
+}
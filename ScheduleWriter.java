@@ -0,0 +1,208 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** Class writing a schedule as "name start core" lines, or a preemptive schedule as
+ *  "name start end core" lines.
+ *
+ *  The lines are encoded straight from the name arena of the task set into a byte
+ *  array, which is copied in one piece into a reusable direct buffer and written to
+ *  a file channel whenever it fills up, so no string is built per task and the
+ *  channel only sees large writes. The schedule is written to a temporary file in
+ *  the directory of the target, which is then renamed over the target in one atomic
+ *  step: a reader sees either the old file or the whole new one, and concurrent
+ *  writers of the same target never interleave. Every write error is thrown.
+ */
+class ScheduleWriter implements Closeable {
+	private static final int BUFFER_SIZE = 1 << 20;		//bytes written to the channel at a time
+	private static final int MAX_DIGITS = 20;		//the digits of the largest long
+
+	private final FileChannel channel;		//the channel of the temporary file
+	private final Path temp;		//the temporary file
+	private final Path target;		//the file the schedule is renamed to
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);		//the reusable write buffer
+	private final byte[] lines = new byte[BUFFER_SIZE];		//the encoded lines not yet in buffer
+	private int length = 0;		//the number of bytes in lines
+	private boolean committed = false;		//whether the temporary file was renamed
+
+	public ScheduleWriter(Path target) throws IOException{
+		this.target = target;
+		temp = tempFile(target);
+		channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+	}
+
+	/** Returns a new hidden file name in the directory of the target. The file is
+	 *  created by the caller, so it gets the permissions of a newly created target
+	 *  instead of the owner-only ones of Files.createTempFile.
+	 */
+	static Path tempFile(Path target){
+		Path dir = target.toAbsolutePath().getParent();
+		return dir.resolve("." + target.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+	}
+
+	/** Writes the schedule to the given file, replacing it atomically if it exists.
+	 */
+	static void write(ScheduleView schedule, Path target) throws IOException{
+		try(ScheduleWriter writer = new ScheduleWriter(target)){
+			writer.write(schedule);
+			writer.commit();
+		}
+	}
+
+	/** Writes the segments of the preemptive schedule to the given file, replacing it
+	 *  atomically if it exists.
+	 */
+	static void write(PreemptiveSchedule schedule, Path target) throws IOException{
+		try(ScheduleWriter writer = new ScheduleWriter(target)){
+			writer.write(schedule);
+			writer.commit();
+		}
+	}
+
+	/** Appends a line for each scheduled task.
+	 */
+	public void write(ScheduleView schedule) throws IOException{
+		TaskSet tasks = schedule.getTasks();
+		for(int i = 0; i < schedule.size(); ++i)
+			writeLine(tasks, schedule.getTask(i), schedule.getStart(i), schedule.getCore(i));
+	}
+
+	/** Appends the line "name start core" of task i of the task set.
+	 */
+	public void writeLine(TaskSet tasks, int i, long start, int core) throws IOException{
+		int nameLength = tasks.nameLength(i);
+		//a name, two numbers, two spaces and a newline
+		if(lines.length - length < nameLength + 2 * MAX_DIGITS + 3)
+			flush();
+		if(lines.length < nameLength + 2 * MAX_DIGITS + 3)
+			throw new IOException("task name of " + nameLength + " bytes does not fit in the write buffer");
+		length = tasks.copyName(i, lines, length);
+		lines[length++] = ' ';
+		putNumber(start);
+		lines[length++] = ' ';
+		putNumber(core);
+		lines[length++] = '\n';
+	}
+
+	/** Appends a line for each segment of the preemptive schedule.
+	 */
+	public void write(PreemptiveSchedule schedule) throws IOException{
+		TaskSet tasks = schedule.getTasks();
+		for(int i = 0; i < schedule.size(); ++i)
+			writeLine(tasks, schedule.getTask(i), schedule.getStart(i), schedule.getEnd(i), schedule.getCore(i));
+	}
+
+	/** Appends the line "name start end core" of a segment of task i of the task set.
+	 */
+	public void writeLine(TaskSet tasks, int i, long start, long end, int core) throws IOException{
+		int nameLength = tasks.nameLength(i);
+		//a name, three numbers, three spaces and a newline
+		if(lines.length - length < nameLength + 3 * MAX_DIGITS + 4)
+			flush();
+		if(lines.length < nameLength + 3 * MAX_DIGITS + 4)
+			throw new IOException("task name of " + nameLength + " bytes does not fit in the write buffer");
+		length = tasks.copyName(i, lines, length);
+		lines[length++] = ' ';
+		putNumber(start);
+		lines[length++] = ' ';
+		putNumber(end);
+		lines[length++] = ' ';
+		putNumber(core);
+		lines[length++] = '\n';
+	}
+
+	/** Appends the line "name start core" of a task whose name is given as a string of
+	 *  ASCII characters, as the tasks of an OnlineScheduler are.
+	 */
+	public void writeLine(String name, long start, int core) throws IOException{
+		int nameLength = name.length();
+		if(lines.length - length < nameLength + 2 * MAX_DIGITS + 3)
+			flush();
+		if(lines.length < nameLength + 2 * MAX_DIGITS + 3)
+			throw new IOException("task name of " + nameLength + " bytes does not fit in the write buffer");
+		for(int k = 0; k < nameLength; ++k)
+			lines[length++] = (byte) name.charAt(k);
+		lines[length++] = ' ';
+		putNumber(start);
+		lines[length++] = ' ';
+		putNumber(core);
+		lines[length++] = '\n';
+	}
+
+	/* encodes a non-negative number in decimal*/
+	private void putNumber(long value){
+		if(value != (int) value){
+			int k = length + digits(value);
+			length = k;
+			do{
+				lines[--k] = (byte) ('0' + value % 10);
+				value /= 10;
+			}while(value != 0);
+			return;
+		}
+		//int division is several times faster than long division
+		int v = (int) value;
+		int k = length + digits(v);
+		length = k;
+		do{
+			lines[--k] = (byte) ('0' + v % 10);
+			v /= 10;
+		}while(v != 0);
+	}
+
+	/* returns the number of decimal digits of a non-negative number*/
+	private static int digits(long value){
+		int digits = 1;
+		for(long limit = 10; digits < 19 && value >= limit; limit *= 10)
+			++digits;
+		return digits;
+	}
+
+	/** Writes the encoded lines to the temporary file.
+	 */
+	public void flush() throws IOException{
+		buffer.put(lines, 0, length);
+		length = 0;
+		buffer.flip();
+		while(buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+	/** Flushes the lines, forces them to the disk and renames the temporary file
+	 *  over the target.
+	 */
+	public void commit() throws IOException{
+		flush();
+		channel.force(true);
+		channel.close();
+		try{
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch(AtomicMoveNotSupportedException atomicMoveException){
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+		committed = true;
+	}
+
+	/** Closes the writer; without a commit the temporary file is deleted and the
+	 *  target is left as it was.
+	 */
+	public void close() throws IOException{
+		if(committed)
+			return;
+		try{
+			channel.close();
+		}
+		finally{
+			Files.deleteIfExists(temp);
+		}
+	}
+}
@@ -0,0 +1,62 @@
+import java.util.Arrays;
+
+/** Class constructing EDF schedules of task sets over and over without allocating.
+ *
+ *  A Scheduler keeps the arrays of the radix sort, the release cursor, the deadline
+ *  heap and the schedule between calls and only grows them, so once it has seen
+ *  the largest task set, schedule() allocates nothing. It never prints or exits:
+ *  the result is the schedule, and an infeasible one comes with its overloaded
+ *  window from getOverload(). It runs the SORTED engine.
+ *
+ *  The returned schedule is overwritten by the next call, and a Scheduler must not
+ *  be used by two threads at once; a service keeps one per thread.
+ */
+class Scheduler {
+	private int[] sorted = new int[0];		//the tasks sorted by release time
+	private int[] buffer = new int[0];		//the other task array of the radix sort
+	private long[] keys = new long[0];		//the release times of the radix sort
+	private long[] keyBuffer = new long[0];		//the other key array of the radix sort
+	private final int[] count = new int[257];		//the byte counts of the radix sort
+	private final ReleaseCursor heap1 = new ReleaseCursor(sorted, 0);		//hands out the tasks in release order
+	private final IntHeap heap2 = new IntHeap(11, null, null);		//the released tasks by deadline
+	private final Schedule schedule = new Schedule(new TaskSet(0), 1);		//the result
+
+	private int[] order;		//the array of sorted and buffer holding the tasks in release order
+	private Feasibility overload;		//the overloaded window of the last schedule, once computed
+
+	/** Returns the EDF schedule of the given tasks on m identical cores, which is not
+	 *  feasible if a task misses its deadline. The schedule is valid until the next call.
+	 */
+	public Schedule schedule(TaskSet tasks, int m){
+		if(m < 1)
+			throw new IllegalArgumentException("m = " + m + " cores");
+		int n = tasks.size();
+		if(sorted.length < n){
+			int capacity = Math.max(n, sorted.length + (sorted.length >> 1));
+			sorted = new int[capacity];
+			buffer = new int[capacity];
+			keys = new long[capacity];
+			keyBuffer = new long[capacity];
+		}
+		order = tasks.sortByRelTime(sorted, buffer, keys, keyBuffer, count);
+		heap1.reset(order, 0, n);
+		heap2.clear();
+		heap2.setKeys(tasks.deadlines(), tasks.relTimes());
+		schedule.reset(tasks, m);
+		overload = null;
+		TaskScheduler.edf(tasks, m, heap1, heap2, schedule);
+		return schedule;
+	}
+
+	/** Returns the overloaded window which makes the last schedule infeasible, or null
+	 *  if it is feasible. The window is computed on the first call, which allocates it.
+	 */
+	public Feasibility getOverload(){
+		if(overload == null && !schedule.isFeasible()){
+			TaskSet tasks = schedule.getTasks();
+			overload = TaskScheduler.overloadedWindow(tasks, schedule.getCores(),
+					Arrays.copyOf(order, tasks.size()), tasks.getDeadline(schedule.getMissedTask()));
+		}
+		return overload;
+	}
+}
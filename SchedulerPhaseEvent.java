@@ -0,0 +1,25 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Class of the Java Flight Recorder event of a phase of a scheduler() run, emitted
+ *  by SchedulerStats. It costs nothing beyond its creation unless a recording
+ *  enables it, e.g. with -XX:StartFlightRecording.
+ */
+@Name("TaskScheduler.Phase")
+@Label("Scheduler Phase")
+@Category("TaskScheduler")
+@Description("A phase of reading, scheduling or writing a task set")
+class SchedulerPhaseEvent extends jdk.jfr.Event {
+	@Label("Phase")
+	String phase;		//the name of the phase
+
+	@Label("Tasks")
+	int tasks;		//the number of tasks known when the phase ended
+
+	@Label("Allocated")
+	@DataAmount
+	long allocated;		//the bytes allocated by the thread in the phase
+}
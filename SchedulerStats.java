@@ -0,0 +1,176 @@
+import java.lang.management.ManagementFactory;
+
+/** Class recording where the time of a scheduler() run goes.
+ *
+ *  It records the wall time and the bytes allocated by the running thread in each
+ *  phase, the offers, polls, sifts and comparisons of heap1 and heap2 with their
+ *  peak sizes, and the idle time units of the schedule. Each phase is also emitted
+ *  as a SchedulerPhaseEvent when Java Flight Recorder is recording it.
+ *
+ *  Nothing is recorded unless a SchedulerStats is passed in: the queues are then
+ *  wrapped by CountingQueue, and heaps are created as CountingIntHeap, so the
+ *  scheduling loop runs the same code as without recording. The idle time units are
+ *  counted from the schedule afterwards. The allocation of the threads of the
+ *  PARALLEL engine is not counted, nor are its queues.
+ */
+class SchedulerStats {
+	/** Enum of the phases of a scheduler() run.
+	 */
+	enum Phase {
+		/** reading and validating the task file*/
+		READ,
+		/** sorting the tasks and building heap1 and heap2*/
+		BUILD,
+		/** the EDF loop*/
+		LOOP,
+		/** writing the schedule*/
+		WRITE
+	}
+
+	static final int HEAP1 = 0;		//the index of heap1 in the queue counters
+	static final int HEAP2 = 1;		//the index of heap2 in the queue counters
+	private static final String QUEUE_NAMES[] = {"heap1", "heap2"};
+
+	private static final com.sun.management.ThreadMXBean THREADS = threads();		//the allocation counter, or null
+
+	private final long phaseNanos[] = new long[Phase.values().length];		//the wall time of each phase
+	private final long phaseBytes[] = new long[Phase.values().length];		//the bytes allocated in each phase
+	final long offers[] = new long[2];		//the offers to each queue
+	final long polls[] = new long[2];		//the polls of each queue
+	final long sifts[] = new long[2];		//the sift ups and downs of each heap
+	final long comparisons[] = new long[2];		//the comparisons of each heap
+	final int peakSizes[] = new int[2];		//the largest size of each queue
+
+	private long idleTicks = 0;		//the time units in which no task runs
+	private long idleSlots = 0;		//the unused cores of the time units in which tasks run
+	private int tasks = 0;		//the number of tasks
+
+	private Phase phase;		//the phase running, or null
+	private long phaseStart;		//the time the phase started
+	private long phaseStartBytes;		//the bytes allocated when the phase started
+	private SchedulerPhaseEvent event;		//the event of the phase
+
+	/* returns the thread bean if it can count allocated bytes*/
+	private static com.sun.management.ThreadMXBean threads(){
+		if(!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean))
+			return null;
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		return threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled() ? threads : null;
+	}
+
+	/* returns the bytes allocated by this thread so far, or 0 if they are not counted*/
+	private static long allocatedBytes(){
+		return (THREADS == null) ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+	}
+
+	/** Starts timing the given phase, ending the running one.
+	 */
+	void startPhase(Phase phase){
+		if(this.phase != null)
+			endPhase();
+		this.phase = phase;
+		event = new SchedulerPhaseEvent();
+		event.begin();
+		phaseStartBytes = allocatedBytes();
+		phaseStart = System.nanoTime();
+	}
+
+	/** Ends timing the running phase.
+	 */
+	void endPhase(){
+		long nanos = System.nanoTime() - phaseStart;
+		long bytes = allocatedBytes() - phaseStartBytes;
+		phaseNanos[phase.ordinal()] += nanos;
+		phaseBytes[phase.ordinal()] += bytes;
+		event.end();
+		if(event.shouldCommit()){
+			event.phase = phase.name();
+			event.tasks = tasks;
+			event.allocated = bytes;
+			event.commit();
+		}
+		event = null;
+		phase = null;
+	}
+
+	/** Returns the queue wrapped to count its offers, polls and peak size as the
+	 *  given one of HEAP1 and HEAP2. The tasks already in the queue, loaded in bulk
+	 *  before it is wrapped, are counted as offers.
+	 */
+	TaskQueue counting(TaskQueue queue, int which){
+		offers[which] += queue.size();
+		peakSizes[which] = Math.max(peakSizes[which], queue.size());
+		return new CountingQueue(queue, this, which);
+	}
+
+	/** Records the size of the task set and the idle time of its schedule, whose
+	 *  start times are in non-decreasing order.
+	 */
+	void recordSchedule(Schedule schedule){
+		tasks = schedule.getTasks().size();
+		long busyTicks = 0;
+		for(int i = 0; i < schedule.size(); ++i)
+			if(i == 0 || schedule.getStart(i) != schedule.getStart(i - 1))
+				++busyTicks;
+		if(schedule.size() > 0){
+			long span = schedule.getStart(schedule.size() - 1) + 1 - schedule.getTasks().getMinRelTime();
+			idleTicks = span - busyTicks;
+			idleSlots = busyTicks * schedule.getCores() - schedule.size();
+		}
+	}
+
+	/* records the number of tasks read*/
+	void recordTasks(int tasks){
+		this.tasks = tasks;
+	}
+
+	/* gets the wall time of the phase in nanoseconds*/
+	public long getNanos(Phase phase){
+		return phaseNanos[phase.ordinal()];
+	}
+	/* gets the bytes allocated by the running thread in the phase, 0 if they are not counted*/
+	public long getAllocatedBytes(Phase phase){
+		return phaseBytes[phase.ordinal()];
+	}
+	/* gets the offers to heap1 or heap2*/
+	public long getOffers(int which){
+		return offers[which];
+	}
+	/* gets the polls of heap1 or heap2*/
+	public long getPolls(int which){
+		return polls[which];
+	}
+	/* gets the sift ups and downs of heap1 or heap2, 0 if it is not an IntHeap*/
+	public long getSifts(int which){
+		return sifts[which];
+	}
+	/* gets the comparisons of heap1 or heap2, 0 if it is not an IntHeap*/
+	public long getComparisons(int which){
+		return comparisons[which];
+	}
+	/* gets the largest size of heap1 or heap2*/
+	public int getPeakSize(int which){
+		return peakSizes[which];
+	}
+	/* gets the time units between the first release and the last start in which no task runs*/
+	public long getIdleTicks(){
+		return idleTicks;
+	}
+	/* gets the unused cores of the time units in which tasks run*/
+	public long getIdleSlots(){
+		return idleSlots;
+	}
+
+	/** Returns the statistics on one line.
+	 */
+	public String toString(){
+		StringBuilder line = new StringBuilder("stats: ").append(tasks).append(" tasks");
+		for(Phase phase : Phase.values())
+			line.append(String.format(", %s %.1f ms %.1f MB", phase.name().toLowerCase(),
+					getNanos(phase) / 1e6, getAllocatedBytes(phase) / 1e6));
+		for(int which = HEAP1; which <= HEAP2; ++which)
+			line.append(String.format(", %s %d offers %d polls %d sifts %d comparisons peak %d",
+					QUEUE_NAMES[which], offers[which], polls[which], sifts[which], comparisons[which], peakSizes[which]));
+		return line.append(", idle ticks ").append(idleTicks).append(", idle slots ").append(idleSlots).toString();
+	}
+}
@@ -0,0 +1,102 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/** Class scheduling independent time segments of a task set in parallel.
+ *
+ *  In release order, a cut falls before a task released at or after the latest
+ *  deadline of all the tasks before it: every earlier task runs before the cut in a
+ *  feasible schedule and no later task is released before it, so the two sides never
+ *  meet in the heaps and EDF schedules them exactly as it would in one pass. The cuts
+ *  are found in one sweep, neighbouring segments are grouped into chunks of at least
+ *  MIN_CHUNK tasks, and the chunks are scheduled by fork/join into their own part of
+ *  one Schedule, so the results come out concatenated in order.
+ */
+class SegmentScheduler extends RecursiveAction {
+	private static final long serialVersionUID = 1L;
+	static final int MIN_CHUNK = 1 << 15;		//the fewest tasks worth scheduling on their own thread
+
+	private final TaskSet tasks;		//the task set
+	private final int m;		//the number of cores
+	private final int[] sorted;		//the tasks sorted by release time
+	private final int[] chunkStart;		//the position in sorted of each chunk, plus the end of the last one
+	private final Schedule[] segments;		//the schedule of each chunk
+	private final int from;		//the first chunk of this action
+	private final int to;		//the chunk after the last chunk of this action
+
+	private SegmentScheduler(TaskSet tasks, int m, int[] sorted, int[] chunkStart, Schedule[] segments,
+			int from, int to){
+		this.tasks = tasks;
+		this.m = m;
+		this.sorted = sorted;
+		this.chunkStart = chunkStart;
+		this.segments = segments;
+		this.from = from;
+		this.to = to;
+	}
+
+	/** Constructs the EDF schedule of the given tasks on m cores, scheduling the
+	 *  independent time segments of the task set on the common fork/join pool.
+	 */
+	static Schedule schedule(TaskSet tasks, int m){
+		int sorted[] = tasks.sortByRelTime();
+		int chunkStart[] = chunks(tasks, sorted);
+		Schedule schedule = new Schedule(tasks, m);
+		int chunks = chunkStart.length - 1;
+		Schedule segments[] = new Schedule[chunks];
+		for(int c = 0; c < chunks; ++c)
+			segments[c] = schedule.segment(chunkStart[c]);
+		SegmentScheduler action = new SegmentScheduler(tasks, m, sorted, chunkStart, segments, 0, chunks);
+		if(chunks > 1)
+			ForkJoinPool.commonPool().invoke(action);
+		else
+			action.compute();
+
+		//the first chunk with a missed deadline ends the schedule
+		for(int c = 0; c < chunks; ++c){
+			if(!segments[c].isFeasible()){
+				schedule.setSize(chunkStart[c] + segments[c].size());
+				schedule.setMissedTask(segments[c].getMissedTask());
+				return schedule;
+			}
+		}
+		schedule.setSize(tasks.size());
+		return schedule;
+	}
+
+	/** Returns the positions in sorted where the chunks start, followed by the
+	 *  number of tasks. Chunks are made of whole segments and, except the last,
+	 *  hold at least MIN_CHUNK tasks.
+	 */
+	static int[] chunks(TaskSet tasks, int sorted[]){
+		int chunkStart[] = new int[16];
+		int chunks = 0;
+		chunkStart[chunks++] = 0;
+		long maxDeadline = Long.MIN_VALUE;
+		for(int i = 0; i < sorted.length; ++i){
+			//a cut before task i which leaves enough tasks in the current chunk
+			if(i > 0 && maxDeadline <= tasks.getRelTime(sorted[i]) && i - chunkStart[chunks - 1] >= MIN_CHUNK){
+				if(chunks == chunkStart.length)
+					chunkStart = Arrays.copyOf(chunkStart, chunks << 1);
+				chunkStart[chunks++] = i;
+			}
+			maxDeadline = Math.max(maxDeadline, tasks.getDeadline(sorted[i]));
+		}
+		chunkStart = Arrays.copyOf(chunkStart, chunks + 1);
+		chunkStart[chunks] = sorted.length;
+		return chunkStart;
+	}
+
+	protected void compute(){
+		if(to - from == 1){
+			TaskQueue heap1 = new ReleaseCursor(sorted, chunkStart[from], chunkStart[to]);
+			TaskQueue heap2 = new IntHeap(11, tasks.deadlines(), tasks.relTimes());
+			TaskScheduler.edf(tasks, m, heap1, heap2, segments[from]);
+		}
+		else{
+			int mid = (from + to) >>> 1;
+			invokeAll(new SegmentScheduler(tasks, m, sorted, chunkStart, segments, from, mid),
+					new SegmentScheduler(tasks, m, sorted, chunkStart, segments, mid, to));
+		}
+	}
+}
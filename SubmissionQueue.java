@@ -0,0 +1,150 @@
+import java.io.IOException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Class collecting tasks from many producer threads for one OnlineScheduler.
+ *
+ *  Each producer registers and gets a ring buffer of its own, which only it writes
+ *  and only the consumer reads, so submitting takes no lock and no compare-and-set:
+ *  the producer fills a slot and publishes it by an ordered write of its tail, and
+ *  the consumer drains whole batches and frees them by an ordered write of its head.
+ *  A producer whose ring is full spins until the consumer catches up.
+ *
+ *  Each producer submits its tasks in release order. The time before which no more
+ *  tasks will come is then the lowest release time last submitted by an open
+ *  producer, so the consumer can run the OnlineScheduler up to it without releasing
+ *  a task late, whatever order the producers are drained in.
+ */
+class SubmissionQueue {
+	static final int DEFAULT_RING_SIZE = 1 << 12;		//the tasks a producer can have waiting by default
+
+	private final int ringSize;		//the slots of each ring, a power of 2
+	private final CopyOnWriteArrayList<Producer> producers = new CopyOnWriteArrayList<Producer>();		//the registered producers
+
+	public SubmissionQueue(){
+		this(DEFAULT_RING_SIZE);
+	}
+
+	public SubmissionQueue(int ringSize){
+		if(ringSize < 1 || Integer.bitCount(ringSize) != 1)
+			throw new IllegalArgumentException("ring size " + ringSize + " is not a power of 2");
+		this.ringSize = ringSize;
+	}
+
+	/** Registers a producer, which must only be used by one thread at a time. Its tasks
+	 *  hold back the time of the scheduler until it submits or is closed.
+	 */
+	public Producer register(){
+		Producer producer = new Producer(ringSize);
+		producers.add(producer);
+		return producer;
+	}
+
+	/** Moves the tasks waiting in the rings to the scheduler and returns their number.
+	 */
+	public int drainTo(OnlineScheduler scheduler) throws IOException{
+		int drained = 0;
+		for(Producer producer : producers)
+			drained += producer.drainTo(scheduler);
+		return drained;
+	}
+
+	/** Drains the rings and runs the scheduler up to the time before which no more tasks
+	 *  will come. Once every producer is closed and drained, runs the remaining tasks,
+	 *  forgets the producers and returns false.
+	 */
+	public boolean step(OnlineScheduler scheduler) throws IOException{
+		long time = Long.MAX_VALUE;		//the time before which no more tasks will come
+		for(Producer producer : producers){
+			//read before draining, so every task submitted before them is drained too
+			boolean closed = producer.closed;
+			long lastRelTime = producer.lastRelTime;
+			producer.drainTo(scheduler);
+			if(!closed)
+				time = Math.min(time, lastRelTime);
+			else if(producer.isEmpty())
+				producers.remove(producer);
+		}
+		if(time == Long.MAX_VALUE){
+			if(!producers.isEmpty())
+				return true;
+			scheduler.finish();
+			return false;
+		}
+		if(time > scheduler.getTime())
+			scheduler.advanceTo(time);
+		return true;
+	}
+
+	/** Class of a producer of tasks, with its own ring buffer.
+	 */
+	static class Producer implements AutoCloseable {
+		private final String names[];		//the name of the task in each slot
+		private final long relTimes[];		//the release time of the task in each slot
+		private final long deadlines[];		//the deadline of the task in each slot
+		private final int mask;		//the ring size minus 1
+		private final AtomicLong tail = new AtomicLong();		//the number of tasks submitted, written by the producer
+		private final AtomicLong head = new AtomicLong();		//the number of tasks drained, written by the consumer
+		private long cachedHead = 0;		//the head last read by the producer
+		private volatile long lastRelTime = 0;		//the release time of the last task submitted
+		private volatile boolean closed = false;		//whether the producer will submit no more tasks
+
+		private Producer(int ringSize){
+			names = new String[ringSize];
+			relTimes = new long[ringSize];
+			deadlines = new long[ringSize];
+			mask = ringSize - 1;
+		}
+
+		/** Submits a task, waiting while the ring is full. Tasks must be submitted in
+		 *  release order; a task released before the last one may be released late.
+		 */
+		public void submit(String name, long r, long d){
+			if(closed)
+				throw new IllegalStateException("the producer is closed");
+			if(d <= r)
+				throw new IllegalArgumentException("deadline " + d + " of task " + name + " is not after its release time " + r);
+			long t = tail.get();
+			if(t - cachedHead > mask){
+				for(int spins = 0; t - (cachedHead = head.get()) > mask; ++spins){
+					if(spins < 100)
+						Thread.onSpinWait();
+					else
+						Thread.yield();
+				}
+			}
+			int slot = (int) t & mask;
+			names[slot] = name;
+			relTimes[slot] = r;
+			deadlines[slot] = d;
+			if(r > lastRelTime)
+				lastRelTime = r;
+			tail.lazySet(t + 1);		//publishes the slot
+		}
+
+		/* moves the published tasks to the scheduler and returns their number*/
+		private int drainTo(OnlineScheduler scheduler) throws IOException{
+			long h = head.get();
+			long t = tail.get();
+			for(long k = h; k < t; ++k){
+				int slot = (int) k & mask;
+				scheduler.submit(names[slot], relTimes[slot], deadlines[slot]);
+				names[slot] = null;
+			}
+			if(t > h)
+				head.lazySet(t);		//frees the slots
+			return (int) (t - h);
+		}
+
+		/* returns whether every submitted task has been drained*/
+		private boolean isEmpty(){
+			return head.get() == tail.get();
+		}
+
+		/** Tells the consumer that no more tasks will come from this producer.
+		 */
+		public void close(){
+			closed = true;
+		}
+	}
+}
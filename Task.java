@@ -0,0 +1,42 @@
+/** Class representing a node of a priority queue by sorting 
+ *  references to the release time or deadline
+ */
+class Task {
+	private String name;		//the name of the task
+	private long relTime;		//the release time of the task
+	private long deadline;		//the deadline of the task
+	
+	public Task(){}
+	
+	public Task(String n, long r, long d){
+		name = n;
+		relTime = r;
+		deadline = d;
+	}
+	
+	/* sets the task name*/
+	protected void setName(String n){
+		name = n;
+	}
+	/* sets the release time*/
+	protected void setRelTime(long r){
+		relTime = r;
+	}
+	/* sets the deadline*/
+	protected void setDeadline(long d){
+		deadline = d;
+	}
+	
+	/* gets the task name*/
+	protected String getName(){
+		return name;
+	}
+	/* gets the release time*/
+	protected long getRelTime(){
+		return relTime;
+	}
+	/* gets the deadline*/
+	protected long getDeadline(){
+		return deadline;
+	}
+}
@@ -0,0 +1,24 @@
+/** Exception thrown when a task file is improperly formatted. It records the line and
+ *  the column (both starting at 1) of the first character of the offending token.
+ */
+class TaskFormatException extends Exception {
+	private static final long serialVersionUID = 1L;
+
+	private final int line;		//the line of the bad token
+	private final int column;		//the column of the bad token
+
+	public TaskFormatException(String message, int line, int column){
+		super(message);
+		this.line = line;
+		this.column = column;
+	}
+
+	/* gets the line of the bad token*/
+	public int getLine(){
+		return line;
+	}
+	/* gets the column of the bad token*/
+	public int getColumn(){
+		return column;
+	}
+}
@@ -0,0 +1,20 @@
+/** Interface of a queue of task indices which hands out the tasks in the
+ *  order of one of the columns of a TaskSet.
+ */
+interface TaskQueue {
+	/** Inserts task i into the queue.
+	 *
+	 * @throws UnsupportedOperationException if the queue is fixed on creation
+	 */
+	void offer(int i);
+
+	/** Returns the first task, or -1 if the queue is empty.
+	 */
+	int peek();
+
+	/** Removes and returns the first task, or -1 if the queue is empty.
+	 */
+	int poll();
+
+	int size();
+}
@@ -0,0 +1,224 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/** Class reading the tasks of a task file, or any other byte channel.
+ *
+ *  The file is streamed through one fixed-size direct buffer, so the memory used
+ *  by the reader does not depend on the size of the file. next() validates and
+ *  parses one name, release time and deadline triple in a single pass over the
+ *  bytes, without regular expressions or intermediate strings, and reports the
+ *  line and column of the first bad token by throwing a TaskFormatException.
+ */
+class TaskReader implements Closeable {
+	private static final int BUFFER_SIZE = 1 << 16;		//bytes read from the channel at a time
+	private static final int MAX_NAME_LETTERS = 100;		//a task name starts with 1 to 100 letters
+
+	private final ReadableByteChannel channel;		//the channel of the task file
+	private final ByteBuffer buffer;		//the reusable read buffer
+	private final StringBuilder token = new StringBuilder();		//the token being collected
+	private boolean eof = false;		//whether the end of the channel has been reached
+
+	private int line = 1;		//the line of the next byte
+	private int column = 1;		//the column of the next byte
+
+	private byte[] name = new byte[16];		//the name of the current task
+	private int nameLength;		//the number of bytes of the name of the current task
+	private long relTime;		//the release time of the current task
+	private long deadline;		//the deadline of the current task
+	private long execTime = 1;		//the execution time of the current task
+
+	public TaskReader(String f) throws IOException{
+		this(FileChannel.open(Paths.get(f), StandardOpenOption.READ));
+	}
+
+	/* reads the tasks from the given channel, such as a pipe*/
+	public TaskReader(ReadableByteChannel channel){
+		this.channel = channel;
+		buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		buffer.flip();		//starts with an empty buffer
+	}
+
+	/** Reads the next task of the file. Returns false if there are no more tasks,
+	 *  otherwise the task is available through name(), getRelTime() and getDeadline()
+	 *  until the next call.
+	 */
+	public boolean next() throws IOException, TaskFormatException{
+		if(!skipWhitespace())
+			return false;
+		readName();
+		if(!skipWhitespace())
+			throw new TaskFormatException("missing release time of task " + name(), line, column);
+		relTime = readNumber("release time");
+		if(!skipWhitespace())
+			throw new TaskFormatException("missing deadline of task " + name(), line, column);
+		int deadlineLine = line;
+		int deadlineColumn = column;
+		deadline = readNumber("deadline");
+		if(deadline <= relTime)
+			throw new TaskFormatException("deadline " + deadline + " of task " + name()
+					+ " is not after its release time " + relTime, deadlineLine, deadlineColumn);
+		return true;
+	}
+
+	/** Reads the next task of a file in which every task has a fourth field, its execution
+	 *  time, a positive integer. Returns false if there are no more tasks, otherwise the task
+	 *  is also available through getExecTime() until the next call.
+	 */
+	public boolean nextWithExecTime() throws IOException, TaskFormatException{
+		if(!next())
+			return false;
+		if(!skipWhitespace())
+			throw new TaskFormatException("missing execution time of task " + name(), line, column);
+		int execLine = line;
+		int execColumn = column;
+		execTime = readNumber("execution time");
+		if(execTime < 1)
+			throw new TaskFormatException("execution time of task " + name() + " is not positive", execLine, execColumn);
+		return true;
+	}
+
+	/* gets the name of the current task*/
+	public String name(){
+		return new String(name, 0, nameLength, StandardCharsets.US_ASCII);
+	}
+	/** Adds the current task to the task set and returns its index.
+	 */
+	public int addTo(TaskSet tasks){
+		return tasks.add(name, 0, nameLength, relTime, deadline, execTime);
+	}
+	/* gets the release time of the current task*/
+	public long getRelTime(){
+		return relTime;
+	}
+	/* gets the deadline of the current task*/
+	public long getDeadline(){
+		return deadline;
+	}
+	/* gets the execution time of the current task, 1 unless read by nextWithExecTime*/
+	public long getExecTime(){
+		return execTime;
+	}
+
+	/** Returns the next whitespace separated token of the file,
+	 *  or null if there are no more tokens.
+	 */
+	public String nextToken() throws IOException{
+		token.setLength(0);
+		while(fill()){
+			byte b = buffer.get();
+			if(isWhitespace(b)){
+				if(token.length() > 0)
+					return token.toString();
+			}
+			else{
+				token.append((char) (b & 0xff));
+			}
+		}
+		return token.length() > 0 ? token.toString() : null;
+	}
+
+	/** Reads a task name, a string of 1 to 100 lower case letters followed by digits.
+	 */
+	private void readName() throws IOException, TaskFormatException{
+		int startLine = line;
+		int startColumn = column;
+		int letters = 0;
+		boolean digits = false;
+		nameLength = 0;
+		while(fill() && !isWhitespace(buffer.get(buffer.position()))){
+			byte b = buffer.get();
+			++column;
+			if(!digits && b >= 'a' && b <= 'z'){
+				if(++letters > MAX_NAME_LETTERS)
+					throw new TaskFormatException("task name has more than " + MAX_NAME_LETTERS
+							+ " letters", startLine, startColumn);
+			}
+			else if(letters > 0 && b >= '0' && b <= '9'){
+				digits = true;
+			}
+			else{
+				throw new TaskFormatException("task name must be lower case letters followed by digits",
+						startLine, startColumn);
+			}
+			if(nameLength == name.length)
+				name = Arrays.copyOf(name, nameLength << 1);
+			name[nameLength++] = b;
+		}
+	}
+
+	/** Reads a non-negative integer which fits in a long.
+	 */
+	private long readNumber(String what) throws IOException, TaskFormatException{
+		int startLine = line;
+		int startColumn = column;
+		long value = 0;
+		while(fill() && !isWhitespace(buffer.get(buffer.position()))){
+			byte b = buffer.get();
+			++column;
+			if(b < '0' || b > '9')
+				throw new TaskFormatException(what + " of task " + name() + " is not a non-negative integer",
+						startLine, startColumn);
+			if(value > (Long.MAX_VALUE - (b - '0')) / 10)
+				throw new TaskFormatException(what + " of task " + name() + " is too large",
+						startLine, startColumn);
+			value = value * 10 + (b - '0');
+		}
+		return value;
+	}
+
+	/** Skips whitespace while keeping track of the line and column,
+	 *  returns false at the end of the file.
+	 */
+	private boolean skipWhitespace() throws IOException{
+		while(fill()){
+			byte b = buffer.get(buffer.position());
+			if(!isWhitespace(b))
+				return true;
+			buffer.get();
+			if(b == '\n'){
+				++line;
+				column = 1;
+			}
+			else{
+				++column;
+			}
+		}
+		return false;
+	}
+
+	/** Makes sure there is at least one byte left in the buffer,
+	 *  returns false at the end of the file.
+	 */
+	private boolean fill() throws IOException{
+		if(buffer.hasRemaining())
+			return true;
+		if(eof)
+			return false;
+		buffer.clear();
+		int n = 0;
+		while(n == 0)
+			n = channel.read(buffer);
+		buffer.flip();
+		if(n < 0){
+			eof = true;
+			return false;
+		}
+		return true;
+	}
+
+	/* returns whether b is an ASCII whitespace character*/
+	static boolean isWhitespace(byte b){
+		return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0x0b;
+	}
+
+	public void close() throws IOException{
+		channel.close();
+	}
+}
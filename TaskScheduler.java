@@ -1,170 +1,591 @@
 import java.util.ArrayList;
-import java.util.Scanner;
-import java.util.Comparator;
 import java.util.Arrays;
-import java.util.Collection;
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
 
 
 // Author: Diwei Chen
 // Date Revised: 20 Jun 2015
 
 public class TaskScheduler{
+	//the BUCKET engine is used while the release times and the deadlines each span
+	//at most BUCKETS_PER_TASK * n + MIN_BUCKETS time units
+	static final int BUCKETS_PER_TASK = 4;
+	static final int MIN_BUCKETS = 1 << 16;
+	//AUTO picks BUCKET when every window is at most BUCKET_MAX_WINDOW units,
+	//and PARALLEL for at least PARALLEL_MIN_TASKS tasks whose windows leave time units uncovered
+	static final long BUCKET_MAX_WINDOW = 63;
+	static final int PARALLEL_MIN_TASKS = 1 << 20;
+	
 	/**Time complexity analysis of the scheduler method:
 	 * 
 	 * This method makes use of the data structure priority heap to schedule the given tasks 
 	 * by their release time and deadline. 
-	 * As the time complexity of the insert method(add) of PriorityQueue, related to upHeap(siftUp) is O(log n), 
+	 * As the time complexity of the insert method(offer) of the heap, related to upHeap(siftUp) is O(log n), 
 	 * n is the number of given tasks, for n tasks inserted to a heap, the time complexity is O(n log n). 
-	 * As the time complexity of the removed method(poll) of PriorityQueue, related to downHeap(siftDown) is O(log n),
+	 * As the time complexity of the removed method(poll) of the heap, related to downHeap(siftDown) is O(log n),
 	 * n is the number of given tasks, for n tasks removed from a heap, the time complexity is O(n log n).
 	 *
-	 * In this method, firstly, n tasks is inserted to heap1, that is O(n log n). At each time, at most removes
-	 * m tasks from heap1 and inserts them to heap2, m is a constant and that at most can be done 2*n times, so that
-	 * is O(n log n).
-	 * Removes n tasks from heap2 and adds them to an array list, that is O(n log n). 
+	 * In this method, firstly, n tasks is inserted to heap1. The heap is built bottom-up by heapify, that is O(n),
+	 * or the tasks are radix sorted by release time, that is O(n) per significant byte of the time span.
+	 * Each task is moved from heap1 to heap2 once, when it is released, that is O(n log n). 
+	 * Removes n tasks from heap2 and adds them to the schedule, that is O(n log n). 
+	 * The time only advances over time units in which at least one task is executed; when no task is
+	 * ready it jumps straight to the next release time, so there are at most n iterations whatever the
+	 * time span of the tasks.
 	 * Therefore, the time complexity is O(n log n) + O(n log n) + O(n log n), e.g, O(n log n).
+	 *
+	 * With the BUCKET engine, heap1 and heap2 are bucket queues over a time range T of at most
+	 * BUCKETS_PER_TASK * n + MIN_BUCKETS units. An insert is O(1) and the cursor of heap2 moves back
+	 * by at most the window length W of a released task, so the time complexity is O(n W + T),
+	 * e.g, O(n) while the windows are short.
+	 *
+	 * With the PARALLEL engine, the tasks are split into segments which do not overlap in time and
+	 * the segments are scheduled on p threads, so the time complexity is O((n log n) / p) plus the
+	 * O(n) radix sort and sweep finding the segments.
+	 *
+	 * With the AUTO engine, one of the others is picked from the statistics the task set gathers
+	 * while it is read, in O(1) but for the O(n) scan of a task set loaded from its columns.
 	 */
 	
 	/** This class methods gets a task set from file1, constructs a feasible schedule for
 	 *  the task set on a processor with m identical cores by using the EDF strategy, 
-	 *  and write the feasible schedule to file2. If no feasible schedule exists, 
+	 *  and write the feasible schedule to file2, each line giving the name, start time and core
+	 *  of a task. If no feasible schedule exists, 
 	 *  it displays “No feasible schedule exists” on the screen.
 	 */
 	static void scheduler(String file1, String file2, Integer m){
-		//used to read the strings from file1
-		String fileStrArr1[] = null;		
+		scheduler(file1, file2, m, Engine.AUTO);
+	}
+	
+	/** This class method is scheduler with the given engine used to construct the schedule.
+	 */
+	static void scheduler(String file1, String file2, Integer m, Engine engine){
+		scheduler(file1, file2, m, engine, null);
+	}
+	
+	/** This class method is scheduler recording the time of each phase and the work of the
+	 *  heaps into stats, unless stats is null.
+	 */
+	static void scheduler(String file1, String file2, Integer m, Engine engine, SchedulerStats stats){
+		scheduler(file1, file2, m, engine, HeapKind.INDEXED, stats);
+	}
+	
+	/** This class method is scheduler with the given kind of heap ordering the released tasks.
+	 *  The engine AUTO picks the engine from the statistics of the tasks, and says which one
+	 *  unless stats is null.
+	 */
+	static void scheduler(String file1, String file2, Integer m, Engine engine, HeapKind heap,
+			SchedulerStats stats){
+		//the tasks from file1, stored column by column and referred to by their index
+		TaskSet tasks;
 		
-		//used to write the output tasks to file2
-		ArrayList<Task> writeArrList = new ArrayList<Task>();	
+		if(m < 1){
+			System.out.printf("m = %d cores, at least one core is needed.\n", m);
+			return;
+		}
 		
-		//heap1 stores all the tasks from the given file and sorts them by their release time
-		PriorityQueue<Task> heap1 = new PriorityQueue<Task>(new Comparator<Task>(){
-					public int compare(Task t1, Task t2){
-						return t1.getRelTime() - t2.getRelTime();
-					}
-		});
+		//streams the tasks of the given file into the task set.
+		//If the file is improperly formatted, reports the bad token and returns.
+		try{
+			if(stats != null)
+				stats.startPhase(SchedulerStats.Phase.READ);
+			tasks = readTaskSet(file1);
+			if(stats != null){
+				stats.recordTasks(tasks.size());
+				stats.endPhase();
+			}
+		}
+		catch(NoSuchFileException fileNotFoundException){
+			System.err.printf("%s does not exist.\n", file1);
+			return;
+		}
+		catch(TaskFormatException formatException){
+			System.out.printf("%s improperly formatted at line %d, column %d: %s.\n", file1,
+					formatException.getLine(), formatException.getColumn(), formatException.getMessage());
+			return;
+		}
+		catch(IOException ioException){
+			System.out.printf("Erro reading from %s.\n", file1);
+			return;
+		}
 		
-		//heap2 sorts the tasks by their deadline and transfers the tasks which can be executed in 
-		//the time unit to writeArrList
-		PriorityQueue<Task> heap2 = new PriorityQueue<Task>(new Comparator<Task>(){
-					public int compare(Task t1, Task t2){
-						return t1.getDeadline() - t2.getDeadline();
-					}
-		});
+		if(engine == Engine.AUTO){
+			engine = chooseEngine(tasks);
+			//says which engine was picked only when asked for stats, outside the timed phases
+			if(stats != null)
+				System.err.printf("Engine %s chosen for %s: %s.\n", engine.name().toLowerCase(), file1, describe(tasks));
+		}
+		Schedule schedule = schedule(tasks, m, engine, heap, stats);
 		
-		//reads strings of the given file and write them to the string list fileStrArr1[]
-		fileStrArr1 = readFile(fileStrArr1, file1);
+		if(!schedule.isFeasible()){
+			System.out.printf("No feasible schedule exists on %d cores of %s.\n", m, file1);
+			Feasibility overload = overloadedWindow(schedule);
+			System.out.printf("%d tasks must run in [%d, %d), which has room for %d.\n",
+					overload.getWindowTasks().length, overload.getWindowStart(), overload.getWindowEnd(),
+					overload.getCapacity());
+			return;
+		}
 		
-		//If the file is improperly formatted, system exists.
-		isFormat(fileStrArr1, file1);
+		//writes file2 to a temporary file first and renames it, replacing an older file2
+		try{
+			if(stats != null)
+				stats.startPhase(SchedulerStats.Phase.WRITE);
+			ScheduleWriter.write(schedule, Paths.get(file2 + ".txt"));
+			if(stats != null)
+				stats.endPhase();
+			System.out.printf("There is a feasible schedule on %d cores of %s.\n", m, file1);
+		}
+		catch(IOException ioException){
+			System.out.printf("Erro writing to %s: %s.\n", file2, ioException);
+		}
+	}
+	
+	/** This class method runs scheduler from the command line.
+	 *  
+	 *  Usage: java TaskScheduler [--stats] [--engine auto|heap|sorted|bucket|parallel]
+	 *         [--heap indexed|binary|quaternary|pairing] file1 file2 m
+	 *  where --stats prints the time of each phase and the work of the heaps on one line,
+	 *  and the engine picked from the statistics of the tasks, which --engine overrides.
+	 */
+	public static void main(String[] args){
+		SchedulerStats stats = null;
+		Engine engine = Engine.AUTO;
+		HeapKind heap = HeapKind.INDEXED;
+		int i = 0;
+		try{
+			for(; i < args.length && args[i].startsWith("--"); ++i){
+				if(args[i].equals("--stats"))
+					stats = new SchedulerStats();
+				else if(args[i].equals("--engine") && i + 1 < args.length)
+					engine = Engine.valueOf(args[++i].toUpperCase());
+				else if(args[i].equals("--heap") && i + 1 < args.length)
+					heap = HeapKind.valueOf(args[++i].toUpperCase());
+				else
+					throw new IllegalArgumentException("unknown option " + args[i]);
+			}
+			if(args.length - i != 3)
+				throw new IllegalArgumentException("file1, file2 and m are required");
+			if(Integer.parseInt(args[i + 2]) < 1)
+				throw new IllegalArgumentException("m must be at least 1");
+		}
+		catch(IllegalArgumentException argumentException){
+			System.err.println(argumentException.getMessage());
+			System.err.println("Usage: java TaskScheduler [--stats] [--engine auto|heap|sorted|bucket|parallel]");
+			System.err.println("       [--heap indexed|binary|quaternary|pairing] file1 file2 m");
+			System.exit(2);
+		}
+		scheduler(args[i], args[i + 1], Integer.parseInt(args[i + 2]), engine, heap, stats);
+		if(stats != null)
+			System.out.println(stats);
+	}
+	
+	/** This class method gets a task set from file1, constructs a schedule for it on m identical
+	 *  cores with the given engine and, if the schedule is feasible, writes it to file2 with the
+	 *  extension .txt. It keeps no state between calls, so it can run on many threads at once;
+	 *  file2 is replaced by an atomic rename, so concurrent writers never interleave.
+	 *  
+	 *  @throws TaskFormatException if file1 is improperly formatted
+	 *  @throws IllegalArgumentException if m is less than 1
+	 */
+	static Schedule scheduleFile(String file1, String file2, int m, Engine engine)
+			throws IOException, TaskFormatException{
+		if(m < 1)
+			throw new IllegalArgumentException("m = " + m + " cores");
+		//the tasks from file1, stored column by column and referred to by their index
+		TaskSet tasks = readTaskSet(file1);
+		Schedule schedule = schedule(tasks, m, engine);
+		if(schedule.isFeasible())
+			ScheduleWriter.write(schedule, Paths.get(file2 + ".txt"));
+		return schedule;
+	}
+	
+	/** This class method constructs a schedule of the given tasks on m identical cores by using
+	 *  the EDF strategy: in each time unit, the at most m released tasks with the earliest deadlines
+	 *  are executed. If a task misses its deadline the returned schedule is not feasible.
+	 *  
+	 *  @throws IllegalArgumentException if m is less than 1
+	 */
+	static Schedule schedule(TaskSet tasks, int m){
+		return schedule(tasks, m, Engine.AUTO);
+	}
+	
+	/** This class method is schedule with the given engine used to hand out the tasks
+	 *  in release order.
+	 */
+	static Schedule schedule(TaskSet tasks, int m, Engine engine){
+		return schedule(tasks, m, engine, null);
+	}
+	
+	/** This class method is schedule recording the time of building the heaps and of the EDF
+	 *  loop, and the work of the heaps, into stats, unless stats is null.
+	 */
+	static Schedule schedule(TaskSet tasks, int m, Engine engine, SchedulerStats stats){
+		return schedule(tasks, m, engine, HeapKind.INDEXED, stats);
+	}
+	
+	/** This class method is schedule with the given kind of heap ordering the released tasks,
+	 *  and the tasks under the HEAP engine. The packed heaps fall back to INDEXED when the
+	 *  times span 2^31 units or more.
+	 */
+	static Schedule schedule(TaskSet tasks, int m, Engine engine, HeapKind heap, SchedulerStats stats){
+		if(m < 1)
+			throw new IllegalArgumentException("m = " + m + " cores");
+		if(stats != null)
+			stats.startPhase(SchedulerStats.Phase.BUILD);
+		if(engine == Engine.AUTO)
+			engine = chooseEngine(tasks);
+		if(engine == Engine.PARALLEL){
+			//the segments are built and scheduled together on the fork/join pool
+			if(stats != null)
+				stats.startPhase(SchedulerStats.Phase.LOOP);
+			Schedule schedule = SegmentScheduler.schedule(tasks, m);
+			if(stats != null){
+				stats.endPhase();
+				stats.recordSchedule(schedule);
+			}
+			return schedule;
+		}
 		
-		//adds the tasks from file string array1 to heap1 and sorts them by their release time
-		heap1 = addStrArrToHeap(fileStrArr1, heap1);
+		Schedule schedule = new Schedule(tasks, m);
 		
-		String path = file2 + ".txt";
-		File file = new File(path);
+		//the bucket queues need one bucket per time unit, so sparse time ranges use the heaps
+		if(engine == Engine.BUCKET && !bucketsFit(tasks))
+			engine = Engine.SORTED;
 		
-		//counts the executed times 
-		int timeCounter = 0;		
+		//heap1 hands out all the tasks from the given file by their release time,
+		//from a heap built in linear time, the radix sorted tasks or the release buckets
+		TaskQueue heap1;
+		//heap2 stores the released tasks and sorts them by their deadline,
+		//tasks with the same deadline in release order
+		TaskQueue heap2;
+		if(engine == Engine.BUCKET){
+			heap1 = new BucketQueue(tasks.relTimes(), tasks.size(), tasks.getMinRelTime(),
+					(int) (tasks.getMaxRelTime() - tasks.getMinRelTime() + 1));
+			for(int i = 0; i < tasks.size(); ++i)
+				heap1.offer(i);
+			heap2 = new BucketQueue(tasks.deadlines(), tasks.size(), tasks.getMinDeadline(),
+					(int) (tasks.getMaxDeadline() - tasks.getMinDeadline() + 1));
+		}
+		else{
+			if(engine == Engine.HEAP){
+				heap1 = heap(heap, tasks.relTimes(), null, tasks.getMinRelTime(), tasks.getMaxRelTime(),
+						tasks.size(), stats, SchedulerStats.HEAP1);
+			}
+			else{
+				heap1 = new ReleaseCursor(tasks.sortByRelTime(), tasks.size());
+			}
+			heap2 = heap(heap, tasks.deadlines(), tasks.relTimes(), tasks.getMinDeadline(), tasks.getMaxDeadline(),
+					0, stats, SchedulerStats.HEAP2);
+		}
 		
-		int fileFlag = 1;
+		if(stats != null){
+			heap1 = stats.counting(heap1, SchedulerStats.HEAP1);
+			heap2 = stats.counting(heap2, SchedulerStats.HEAP2);
+			stats.startPhase(SchedulerStats.Phase.LOOP);
+		}
+		edf(tasks, m, heap1, heap2, schedule);
+		if(stats != null){
+			stats.endPhase();
+			stats.recordSchedule(schedule);
+		}
+		return schedule;
+	}
+	
+	/** This class method returns whether the release times and the deadlines of the tasks each
+	 *  span few enough time units for the bucket queues of the BUCKET engine.
+	 */
+	static boolean bucketsFit(TaskSet tasks){
+		long maxBuckets = (long) BUCKETS_PER_TASK * tasks.size() + MIN_BUCKETS;
+		return BucketQueue.fits(tasks.getMinRelTime(), tasks.getMaxRelTime(), maxBuckets)
+				&& BucketQueue.fits(tasks.getMinDeadline(), tasks.getMaxDeadline(), maxBuckets);
+	}
+	
+	/** This class method picks the engine expected to schedule the tasks fastest from the
+	 *  statistics gathered while they were read:
+	 *  PARALLEL for at least PARALLEL_MIN_TASKS tasks on a machine with several processors,
+	 *  when the windows add up to at most half the time span, so many time units lie in no
+	 *  window and the task set falls apart into segments;
+	 *  BUCKET when the times are dense enough for the bucket queues and every window is at
+	 *  most BUCKET_MAX_WINDOW units, as the cursor of heap2 moves back by up to the longest
+	 *  window on each release, so even a few long windows make it rescan on every release;
+	 *  SORTED otherwise, skipping the radix sort when the tasks are already in release order.
+	 *  HEAP is never picked: building heap1 in linear time saves the radix sort, but polling
+	 *  it costs more than the sort, over dense and sparse time spans alike.
+	 */
+	static Engine chooseEngine(TaskSet tasks){
+		int n = tasks.size();
+		if(n == 0)
+			return Engine.SORTED;
+		double span = (double) tasks.getMaxDeadline() - tasks.getMinRelTime();
+		if(n >= PARALLEL_MIN_TASKS && Runtime.getRuntime().availableProcessors() > 1
+				&& tasks.windowSum() <= span / 2)
+			return Engine.PARALLEL;
+		if(bucketsFit(tasks) && tasks.windowQuantile(1) <= BUCKET_MAX_WINDOW)
+			return Engine.BUCKET;
+		return Engine.SORTED;
+	}
+	
+	/** This class method returns the statistics chooseEngine goes by, for the log line.
+	 */
+	static String describe(TaskSet tasks){
+		if(tasks.size() == 0)
+			return "no tasks";
+		return String.format("%d tasks, %s, releases in [%d, %d], deadlines in [%d, %d], windows at most %d",
+				tasks.size(), tasks.isSortedByRelTime() ? "in release order" : tasks.getRelDescents() + " out of release order",
+				tasks.getMinRelTime(), tasks.getMaxRelTime(), tasks.getMinDeadline(), tasks.getMaxDeadline(),
+				tasks.windowQuantile(1));
+	}
+	
+	/** This class method returns a heap of the given kind ordering the tasks by keys, which span
+	 *  min to max, and then by ties, or in offer order for the packed heaps; the tasks 0 to n-1
+	 *  are added in linear time where the heap allows it. Unless stats is null, the heap is an
+	 *  IntHeap which counts its sifts and comparisons as heap which.
+	 */
+	private static TaskQueue heap(HeapKind kind, long[] keys, long[] ties, long min, long max, int n,
+			SchedulerStats stats, int which){
+		if(kind == HeapKind.INDEXED || !PackedHeap.fits(min, max)){
+			IntHeap heap = (stats == null) ? new IntHeap(Math.max(11, n), keys, ties)
+					: new CountingIntHeap(Math.max(11, n), keys, ties, stats, which);
+			heap.addRange(n);
+			return heap;
+		}
+		if(kind == HeapKind.PAIRING){
+			PairingHeap heap = new PairingHeap(keys, min, Math.max(11, n));
+			for(int i = 0; i < n; ++i)
+				heap.offer(i);
+			return heap;
+		}
+		PackedHeap heap = new PackedHeap((kind == HeapKind.QUATERNARY) ? 2 : 1, keys, min, Math.max(11, n));
+		heap.addRange(n);
+		return heap;
+	}
+	
+	/** This class method runs the EDF strategy on m cores over the tasks handed out by heap1 in
+	 *  release order, with heap2 an empty queue ordering the released tasks by deadline, and
+	 *  appends them to the schedule. It stops at the first task which misses its deadline.
+	 */
+	static void edf(TaskSet tasks, int m, TaskQueue heap1, TaskQueue heap2, Schedule schedule){
+		//the start of the current time unit
+		long timeCounter = 0;
 		
-		while(heap1.size() > 1){
-			
-			//heap1Head always points to the head of heap1
-			Task heap1Head = heap1.peek();
+		while(heap1.size() > 0 || heap2.size() > 0){
+			//if no task is ready, jumps to the release time of the next task
+			if(heap2.size() == 0)
+				timeCounter = Math.max(timeCounter, tasks.getRelTime(heap1.peek()));
 			
-			//if the executed time is between the release time and the deadline of the latest task
-			if(heap1.peek().getRelTime() <= timeCounter && timeCounter < heap1.peek().getDeadline()){
-				heap1Head = heap1.poll();
-				heap2.add(heap1Head);
-				heap1Head = heap1.peek();
+			//moves the tasks released by now from heap1 to heap2
+			while(heap1.size() > 0 && tasks.getRelTime(heap1.peek()) <= timeCounter)
+				heap2.offer(heap1.poll());
 			
-				//at most removes m tasks from heap1 and adds them to heap2
-				for(int t = 1; t < m; ++t){
-					//if the release time of heap1Head is equals to that of heap2Head,
-					//consistently puts the head of heap1 into heap2
-					if(heap1.peek().getRelTime() <= timeCounter && timeCounter < heap1.peek().getDeadline()){
-						heap1Head = heap1.poll();
-						heap2.add(heap1Head);
-						if(heap1.size() == 0)
-							break;
-						else{
-							heap1Head = heap1.peek();
-						}
-					}
+			//executes at most m tasks with the earliest deadlines in this time unit
+			for(int core = 0; core < m && heap2.size() > 0; ++core){
+				int task = heap2.poll();
+				//if the task can no longer finish by its deadline, no feasible schedule exists
+				if(tasks.getDeadline(task) <= timeCounter){
+					schedule.setMissedTask(task);
+					return;
 				}
-				
-				Task writeTask = null;
-				
-				//executes the tasks in heap2, e.g., puts them to the output array list(writeArrList)
-				while(heap2.size() > 0){
-					writeTask = heap2.poll();
-					writeArrList.add(writeTask);
-				}
-				++timeCounter;
-				
-			}
-			else if(heap1.peek().getRelTime() > timeCounter){
-				++timeCounter;
+				schedule.add(task, timeCounter, core);
 			}
-			//if the executing time of the rest task(s) exceeds its deadline, then breaks and finishes
-			else if(heap1.peek().getDeadline() <= timeCounter){
-				System.out.printf("No feasible schedule exists on %d cores of %s.\n", m, file1);
-				fileFlag = 0;
-				break;
+			++timeCounter;
+		}
+	}
+	
+	/** This class method decides whether the given tasks have a feasible schedule on m identical
+	 *  cores without constructing it. It sweeps the tasks in release order through a deadline heap
+	 *  without recording which task runs when, and stops at the first missed deadline. If there is no
+	 *  feasible schedule, the answer carries the overloaded window found by overloadedWindow.
+	 */
+	static Feasibility isFeasible(TaskSet tasks, int m){
+		if(m < 1)
+			throw new IllegalArgumentException("m = " + m + " cores");
+		int sorted[] = tasks.sortByRelTime();
+		long missedDeadline = missedDeadline(tasks, m, sorted, new IntHeap(tasks.deadlines()));
+		if(missedDeadline >= 0)
+			return overloadedWindow(tasks, m, sorted, missedDeadline);
+		return Feasibility.feasible(m);
+	}
+	
+	/** This class method is the feasibility sweep of isFeasible over the tasks already sorted by
+	 *  release time, with heap2 given as an empty deadline heap so that both can be reused across
+	 *  calls. Returns the deadline of the first task which misses it on m cores, or -1 if the
+	 *  tasks have a feasible schedule.
+	 */
+	private static long missedDeadline(TaskSet tasks, int m, int sorted[], IntHeap heap2){
+		int n = tasks.size();
+		int next = 0;
+		long timeCounter = 0;
+		while(next < n || heap2.size() > 0){
+			//if no task is ready, jumps to the release time of the next task
+			if(heap2.size() == 0)
+				timeCounter = Math.max(timeCounter, tasks.getRelTime(sorted[next]));
+			while(next < n && tasks.getRelTime(sorted[next]) <= timeCounter)
+				heap2.offer(sorted[next++]);
+			for(int core = 0; core < m && heap2.size() > 0; ++core){
+				int task = heap2.poll();
+				if(tasks.getDeadline(task) <= timeCounter){
+					heap2.clear();
+					return tasks.getDeadline(task);
+				}
 			}
+			++timeCounter;
 		}
-		//if there is only one task in heap1, executes it directly
-		if(heap1.size() == 1 && heap1.peek().getRelTime() <= timeCounter
-					&& timeCounter < heap1.peek().getDeadline()){		
-			writeArrList.add(heap1.poll());
+		return -1;
+	}
+	
+	/** This class method returns the smallest number of identical cores on which the given tasks
+	 *  have a feasible schedule. The tasks are sorted once and the sorted array and the deadline
+	 *  heap are reused by every feasibility sweep of a binary search between a lower bound, the
+	 *  peak demand of the windows found by demandLowerBound, and an upper bound, the most tasks
+	 *  released at the same time, on which every task can run as soon as it is released.
+	 */
+	static int minCores(TaskSet tasks){
+		if(tasks.size() == 0)
+			return 0;
+		int sorted[] = tasks.sortByRelTime();
+		IntHeap heap2 = new IntHeap(tasks.deadlines());
+		int low = demandLowerBound(tasks, sorted);
+		int high = 1;
+		for(int i = 0, j; i < sorted.length; i = j){
+			for(j = i + 1; j < sorted.length && tasks.getRelTime(sorted[j]) == tasks.getRelTime(sorted[i]); ++j);
+			high = Math.max(high, j - i);
 		}
-		
-		if(fileFlag == 1){
-			//if file2 already exists, should remove file2 first and rerun the program
-			if(file.exists()){
-				System.out.printf("File %s already exists.\n", file2);
-				System.out.printf("Please removes file %s and reruns routine.\n", file2);
-				fileFlag = 0;
+		//the smallest feasible number of cores is in [low, high]
+		while(low < high){
+			int mid = (low + high) >>> 1;
+			if(missedDeadline(tasks, mid, sorted, heap2) < 0)
+				high = mid;
+			else
+				low = mid + 1;
+		}
+		return low;
+	}
+	
+	/** This class method reads the tasks of the given file once and returns the smallest number of
+	 *  identical cores on which they have a feasible schedule.
+	 */
+	static int minCores(String file1) throws IOException, TaskFormatException{
+		return minCores(readTaskSet(file1));
+	}
+	
+	/** This class method returns a lower bound of the number of cores needed by the given tasks,
+	 *  sorted by release time. For the k tasks released at time r with the earliest deadlines,
+	 *  the last of which is d, the window [r, d) must hold at least k tasks, which needs
+	 *  ceil(k / (d - r)) cores. The bound is the largest of these, and at least 1.
+	 */
+	static int demandLowerBound(TaskSet tasks, int sorted[]){
+		long bound = 1;
+		long deadlines[] = new long[16];
+		for(int i = 0, j; i < sorted.length; i = j){
+			long relTime = tasks.getRelTime(sorted[i]);
+			for(j = i; j < sorted.length && tasks.getRelTime(sorted[j]) == relTime; ++j){
+				if(j - i == deadlines.length)
+					deadlines = Arrays.copyOf(deadlines, deadlines.length << 1);
+				deadlines[j - i] = tasks.getDeadline(sorted[j]);
 			}
-			else if(fileFlag == 1){
-				System.out.printf("There is a feasible schedule on %d cores of %s.\n", m, file1);
-				writeFile(writeArrList, file.toString());
-		
+			Arrays.sort(deadlines, 0, j - i);
+			for(int k = 1; k <= j - i; ++k){
+				long length = deadlines[k - 1] - relTime;
+				bound = Math.max(bound, (k + length - 1) / length);
+			}
+		}
+		return (int) bound;
+	}
+	
+	/** This class method returns the overloaded window of an infeasible schedule.
+	 */
+	static Feasibility overloadedWindow(Schedule schedule){
+		TaskSet tasks = schedule.getTasks();
+		return overloadedWindow(tasks, schedule.getCores(), tasks.sortByRelTime(),
+				tasks.getDeadline(schedule.getMissedTask()));
+	}
+	
+	/** This class method returns the overloaded window ending at the deadline end of the
+	 *  first task which misses its deadline under EDF, given the tasks sorted by release time.
+	 *  
+	 *  Let start be the end of the last time unit before end in which EDF left a core idle or ran
+	 *  a task with a deadline after end. Every task run in [start, end), and the missed task, is
+	 *  released at or after start with a deadline at or before end, and there are more than
+	 *  m * (end - start) of them. So walking the release times backwards from end while counting
+	 *  the tasks due by end finds such a window.
+	 */
+	static Feasibility overloadedWindow(TaskSet tasks, int m, int sorted[], long end){
+		int count = 0;
+		for(int i = sorted.length - 1; i >= 0; --i){
+			if(tasks.getDeadline(sorted[i]) <= end)
+				++count;
+			long start = tasks.getRelTime(sorted[i]);
+			//checks once all the tasks released at start are counted
+			if(count > 0 && (i == 0 || tasks.getRelTime(sorted[i - 1]) != start)
+					&& end - start <= (count - 1) / m){
+				int windowTasks[] = new int[count];
+				int k = 0;
+				for(int j = i; j < sorted.length; ++j)
+					if(tasks.getDeadline(sorted[j]) <= end)
+						windowTasks[k++] = sorted[j];
+				return Feasibility.overloaded(m, start, end, windowTasks);
 			}
 		}
+		throw new IllegalStateException("no overloaded window ends at " + end);
 	}
 	
 	/**	This class method reads the strings of the given file and put them 
 	 *  into a string array and returns the address of that string array.
 	 */
 	public static String[] readFile(String fileStrArr[], String f){
-		Scanner input = null;
-		String fileStr = "";
-		String path = f;
-		File file = new File(path);
-		try{
-			input = new Scanner(file);		//puts the file into scan stream
+		ArrayList<String> tokens = new ArrayList<String>();
+		try(TaskReader reader = new TaskReader(f)){
+			String token;
+			while((token = reader.nextToken()) != null)
+				tokens.add(token);
 		}
-		catch(FileNotFoundException fileNotFoundException){
+		catch(NoSuchFileException fileNotFoundException){
 			System.err.printf("%s does not exist.\n", f);
 			System.exit(1);
 		}
-		try{
-			while(input.hasNextLine()){
-					fileStr = fileStr + input.nextLine() + " ";
-			}
-			fileStrArr = fileStr.split("\\s+");		//splits the string by whitespace
-		}
-		catch(IllegalStateException stateException){
+		catch(IOException ioException){
 			System.out.printf("Erro reading from %s.\n", f);
 		}
-		input.close();
+		fileStrArr = tokens.toArray(new String[tokens.size()]);
 		return fileStrArr;
 	}
 
+	/** This class method streams the tasks of the given file into the heap without keeping
+	 *  the text of the file in memory, and returns the heap. Names, release times and deadlines
+	 *  are validated and parsed in the same pass; the first bad token is reported by a
+	 *  TaskFormatException with its line and column.
+	 */
+	public static PriorityQueue<Task> readTasks(String f, PriorityQueue<Task> heap)
+			throws IOException, TaskFormatException{
+		try(TaskReader reader = new TaskReader(f)){
+			while(reader.next())
+				heap.add(new Task(reader.name(), reader.getRelTime(), reader.getDeadline()));
+		}
+		return heap;
+	}
+
+	/** This class method reads the tasks of the given file into a task set, validating
+	 *  and parsing them in one pass like readTasks, and returns the task set. A task set
+	 *  file written by TaskSetFile is loaded as it is, without parsing, and a large text
+	 *  file is parsed by ParallelTaskReader on every core.
+	 */
+	public static TaskSet readTaskSet(String f) throws IOException, TaskFormatException{
+		if(TaskSetFile.isTaskSetFile(Paths.get(f)))
+			return TaskSetFile.read(Paths.get(f));
+		int cores = Runtime.getRuntime().availableProcessors();
+		if(cores > 1 && Files.size(Paths.get(f)) >= ParallelTaskReader.MIN_PARALLEL_BYTES)
+			return ParallelTaskReader.read(f, cores);
+		TaskSet tasks = new TaskSet();
+		try(TaskReader reader = new TaskReader(f)){
+			while(reader.next())
+				reader.addTo(tasks);
+		}
+		return tasks;
+	}
+
 	/** This class method returns whether the file is formatted properly.
 	 */
 	public static boolean isFormat(String fileStrArr[], String f){
@@ -184,17 +605,20 @@ public class TaskScheduler{
 	}
 
 	/**This class method converts the given file string to Task nodes and adds these nodes
-	 * to a task array list then returns this array list
+	 * to the heap then returns the heap
 	 */
 	public static PriorityQueue<Task> addStrArrToHeap(String f[], PriorityQueue<Task> heap){
 
+		Task tasks[] = new Task[f.length / 3];
 		for(int i = 0; i < f.length; i = i + 3){
 			Task task = new Task();
 			task.setName(f[i]);			//sets the task name from the string array f sequentially
-			task.setRelTime(Integer.parseInt(f[i+1]));		//sets the release time from the string array f sequentially
-			task.setDeadline(Integer.parseInt(f[i+2]));		//sets the deadline from the string array f sequentially
-			heap.add(task);	
+			task.setRelTime(Long.parseLong(f[i+1]));		//sets the release time from the string array f sequentially
+			task.setDeadline(Long.parseLong(f[i+2]));		//sets the deadline from the string array f sequentially
+			tasks[i / 3] = task;
 		}
+		//builds the heap in linear time instead of adding the tasks one by one
+		heap.addAll(tasks);
 		return heap;
 	}
 	
@@ -211,510 +635,13 @@ public class TaskScheduler{
 									arr.get(m).getDeadline() + "\n");
 			}
 			writer.close();
+			//PrintWriter keeps its write errors to itself until asked
+			if(writer.checkError())
+				System.err.printf("Erro writing to %s.\n", f);
 		}
 		catch(IOException ex){
-			
+			System.err.printf("Erro writing to %s: %s.\n", f, ex);
 		}
 		
 	}
 }
-
-
-/** Class representing a node of a priority queue by sorting 
- *  references to the release time or deadline
- */
-class Task {
-	private String name;		//the name of the task
-	private int relTime;		//the release time of the task
-	private int deadline;		//the deadline of the task
-	
-	public Task(){}
-	
-	public Task(String n, int r, int d){
-		name = n;
-		relTime = r;
-		deadline = d;
-	}
-	
-	/* sets the task name*/
-	protected void setName(String n){
-		name = n;
-	}
-	/* sets the release time*/
-	protected void setRelTime(int r){
-		relTime = r;
-	}
-	/* sets the deadline*/
-	protected void setDeadline(int d){
-		deadline = d;
-	}
-	
-	/* gets the task name*/
-	protected String getName(){
-		return name;
-	}
-	/* gets the release time*/
-	protected int getRelTime(){
-		return relTime;
-	}
-	/* gets the deadline*/
-	protected int getDeadline(){
-		return deadline;
-	}
-}
-
-/** This is the source code from java.util.PriorityQueue,
- *  but only a part of them is copied and used in TaskScheduler.
- */
-class PriorityQueue<E> {
-    private static final int DEFAULT_INITIAL_CAPACITY = 11;
-
-    /**
-     * Priority queue represented as a balanced binary heap: the two
-     * children of queue[n] are queue[2*n+1] and queue[2*(n+1)].  The
-     * priority queue is ordered by comparator, or by the elements'
-     * natural ordering, if comparator is null: For each node n in the
-     * heap and each descendant d of n, n <= d.  The element with the
-     * lowest value is in queue[0], assuming the queue is nonempty.
-     */
-    transient Object[] queue; // non-private to simplify nested class access
-
-    /**
-     * The number of elements in the priority queue.
-     */
-    private int size = 0;
-
-    /**
-     * The comparator, or null if priority queue uses elements'
-     * natural ordering.
-     */
-    private final Comparator<? super E> comparator;
-
-    /**
-     * The number of times this priority queue has been
-     * <i>structurally modified</i>.  See AbstractList for gory details.
-     */
-    transient int modCount = 0; // non-private to simplify nested class access
-
-    /**
-     * Creates a {@code PriorityQueue} with the default initial
-     * capacity (11) that orders its elements according to their
-     * {@linkplain Comparable natural ordering}.
-     */
-    public PriorityQueue() {
-        this(DEFAULT_INITIAL_CAPACITY, null);
-    }
-    
-    /**
-     * Creates a {@code PriorityQueue} with the default initial capacity and
-     * whose elements are ordered according to the specified comparator.
-     *
-     * @param  comparator the comparator that will be used to order this
-     *         priority queue.  If {@code null}, the {@linkplain Comparable
-     *         natural ordering} of the elements will be used.
-     * @since 1.8
-     */
-    public PriorityQueue(Comparator<? super E> comparator) {
-        this(DEFAULT_INITIAL_CAPACITY, comparator);
-    }
-
-    
-    /**
-     * Creates a {@code PriorityQueue} with the specified initial capacity
-     * that orders its elements according to the specified comparator.
-     *
-     * @param  initialCapacity the initial capacity for this priority queue
-     * @param  comparator the comparator that will be used to order this
-     *         priority queue.  If {@code null}, the {@linkplain Comparable
-     *         natural ordering} of the elements will be used.
-     * @throws IllegalArgumentException if {@code initialCapacity} is
-     *         less than 1
-     */
-    public PriorityQueue(int initialCapacity,
-                         Comparator<? super E> comparator) {
-        // Note: This restriction of at least one is not actually needed,
-        // but continues for 1.5 compatibility
-        if (initialCapacity < 1)
-            throw new IllegalArgumentException();
-        this.queue = new Object[initialCapacity];
-        this.comparator = comparator;
-    }
-    /**
-     * The maximum size of array to allocate.
-     * Some VMs reserve some header words in an array.
-     * Attempts to allocate larger arrays may result in
-     * OutOfMemoryError: Requested array size exceeds VM limit
-     */
-    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
-    /**
-     * Increases the capacity of the array.
-     *
-     * @param minCapacity the desired minimum capacity
-     */
-    private void grow(int minCapacity) {
-        int oldCapacity = queue.length;
-        // Double size if small; else grow by 50%
-        int newCapacity = oldCapacity + ((oldCapacity < 64) ?
-                                         (oldCapacity + 2) :
-                                         (oldCapacity >> 1));
-        // overflow-conscious code
-        if (newCapacity - MAX_ARRAY_SIZE > 0)
-            newCapacity = hugeCapacity(minCapacity);
-        queue = Arrays.copyOf(queue, newCapacity);
-    }
-    
-    private static int hugeCapacity(int minCapacity) {
-        if (minCapacity < 0) // overflow
-            throw new OutOfMemoryError();
-        return (minCapacity > MAX_ARRAY_SIZE) ?
-            Integer.MAX_VALUE :
-            MAX_ARRAY_SIZE;
-    }
-    
-    /**
-     * Inserts the specified element into this priority queue.
-     *
-     * @return {@code true} (as specified by {@link Collection#add})
-     * @throws ClassCastException if the specified element cannot be
-     *         compared with elements currently in this priority queue
-     *         according to the priority queue's ordering
-     * @throws NullPointerException if the specified element is null
-     */
-    public boolean add(E e) {
-        return offer(e);
-    }
-    
-    /**
-     * Inserts the specified element into this priority queue.
-     *
-     * @return {@code true} (as specified by {@link Queue#offer})
-     * @throws ClassCastException if the specified element cannot be
-     *         compared with elements currently in this priority queue
-     *         according to the priority queue's ordering
-     * @throws NullPointerException if the specified element is null
-     */
-    public boolean offer(E e) {
-        if (e == null)
-            throw new NullPointerException();
-        modCount++;
-        int i = size;
-        if (i >= queue.length)
-            grow(i + 1);
-        size = i + 1;
-        if (i == 0)
-            queue[0] = e;
-        else
-            siftUp(i, e);
-        return true;
-    }
-    @SuppressWarnings("unchecked")
-    public E peek() {
-        return (size == 0) ? null : (E) queue[0];
-    }
-
-    private int indexOf(Object o) {
-        if (o != null) {
-            for (int i = 0; i < size; i++)
-                if (o.equals(queue[i]))
-                    return i;
-        }
-        return -1;
-    }
-
-    /**
-     * Removes a single instance of the specified element from this queue,
-     * if it is present.  More formally, removes an element {@code e} such
-     * that {@code o.equals(e)}, if this queue contains one or more such
-     * elements.  Returns {@code true} if and only if this queue contained
-     * the specified element (or equivalently, if this queue changed as a
-     * result of the call).
-     *
-     * @param o element to be removed from this queue, if present
-     * @return {@code true} if this queue changed as a result of the call
-     */
-    public boolean remove(Object o) {
-        int i = indexOf(o);
-        if (i == -1)
-            return false;
-        else {
-            removeAt(i);
-            return true;
-        }
-    }
-
-    /**
-     * Version of remove using reference equality, not equals.
-     * Needed by iterator.remove.
-     *
-     * @param o element to be removed from this queue, if present
-     * @return {@code true} if removed
-     */
-    boolean removeEq(Object o) {
-        for (int i = 0; i < size; i++) {
-            if (o == queue[i]) {
-                removeAt(i);
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Returns {@code true} if this queue contains the specified element.
-     * More formally, returns {@code true} if and only if this queue contains
-     * at least one element {@code e} such that {@code o.equals(e)}.
-     *
-     * @param o object to be checked for containment in this queue
-     * @return {@code true} if this queue contains the specified element
-     */
-    public boolean contains(Object o) {
-        return indexOf(o) != -1;
-    }
-
-    /**
-     * Returns an array containing all of the elements in this queue.
-     * The elements are in no particular order.
-     *
-     * <p>The returned array will be "safe" in that no references to it are
-     * maintained by this queue.  (In other words, this method must allocate
-     * a new array).  The caller is thus free to modify the returned array.
-     *
-     * <p>This method acts as bridge between array-based and collection-based
-     * APIs.
-     *
-     * @return an array containing all of the elements in this queue
-     */
-    public Object[] toArray() {
-        return Arrays.copyOf(queue, size);
-    }
-
-    /**
-     * Returns an array containing all of the elements in this queue; the
-     * runtime type of the returned array is that of the specified array.
-     * The returned array elements are in no particular order.
-     * If the queue fits in the specified array, it is returned therein.
-     * Otherwise, a new array is allocated with the runtime type of the
-     * specified array and the size of this queue.
-     *
-     * <p>If the queue fits in the specified array with room to spare
-     * (i.e., the array has more elements than the queue), the element in
-     * the array immediately following the end of the collection is set to
-     * {@code null}.
-     *
-     * <p>Like the {@link #toArray()} method, this method acts as bridge between
-     * array-based and collection-based APIs.  Further, this method allows
-     * precise control over the runtime type of the output array, and may,
-     * under certain circumstances, be used to save allocation costs.
-     *
-     * <p>Suppose {@code x} is a queue known to contain only strings.
-     * The following code can be used to dump the queue into a newly
-     * allocated array of {@code String}:
-     *
-     *  <pre> {@code String[] y = x.toArray(new String[0]);}</pre>
-     *
-     * Note that {@code toArray(new Object[0])} is identical in function to
-     * {@code toArray()}.
-     *
-     * @param a the array into which the elements of the queue are to
-     *          be stored, if it is big enough; otherwise, a new array of the
-     *          same runtime type is allocated for this purpose.
-     * @return an array containing all of the elements in this queue
-     * @throws ArrayStoreException if the runtime type of the specified array
-     *         is not a supertype of the runtime type of every element in
-     *         this queue
-     * @throws NullPointerException if the specified array is null
-     */
-    @SuppressWarnings("unchecked")
-    public <T> T[] toArray(T[] a) {
-        final int size = this.size;
-        if (a.length < size)
-            // Make a new array of a's runtime type, but my contents:
-            return (T[]) Arrays.copyOf(queue, size, a.getClass());
-        System.arraycopy(queue, 0, a, 0, size);
-        if (a.length > size)
-            a[size] = null;
-        return a;
-    }
-
-    public int size() {
-        return size;
-    }
-
-    /**
-     * Removes all of the elements from this priority queue.
-     * The queue will be empty after this call returns.
-     */
-    public void clear() {
-        modCount++;
-        for (int i = 0; i < size; i++)
-            queue[i] = null;
-        size = 0;
-    }
-
-    @SuppressWarnings("unchecked")
-    public E poll() {
-        if (size == 0)
-            return null;
-        int s = --size;
-        modCount++;
-        E result = (E) queue[0];
-        E x = (E) queue[s];
-        queue[s] = null;
-        if (s != 0)
-            siftDown(0, x);
-        return result;
-    }
-
-    /**
-     * Removes the ith element from queue.
-     *
-     * Normally this method leaves the elements at up to i-1,
-     * inclusive, untouched.  Under these circumstances, it returns
-     * null.  Occasionally, in order to maintain the heap invariant,
-     * it must swap a later element of the list with one earlier than
-     * i.  Under these circumstances, this method returns the element
-     * that was previously at the end of the list and is now at some
-     * position before i. This fact is used by iterator.remove so as to
-     * avoid missing traversing elements.
-     */
-    @SuppressWarnings("unchecked")
-    private E removeAt(int i) {
-        // assert i >= 0 && i < size;
-        modCount++;
-        int s = --size;
-        if (s == i) // removed last element
-            queue[i] = null;
-        else {
-            E moved = (E) queue[s];
-            queue[s] = null;
-            siftDown(i, moved);
-            if (queue[i] == moved) {
-                siftUp(i, moved);
-                if (queue[i] != moved)
-                    return moved;
-            }
-        }
-        return null;
-    }
-
-    /**
-     * Inserts item x at position k, maintaining heap invariant by
-     * promoting x up the tree until it is greater than or equal to
-     * its parent, or is the root.
-     *
-     * To simplify and speed up coercions and comparisons. the
-     * Comparable and Comparator versions are separated into different
-     * methods that are otherwise identical. (Similarly for siftDown.)
-     *
-     * @param k the position to fill
-     * @param x the item to insert
-     */
-    private void siftUp(int k, E x) {
-        if (comparator != null)
-            siftUpUsingComparator(k, x);
-        else
-            siftUpComparable(k, x);
-    }
-
-    @SuppressWarnings("unchecked")
-    private void siftUpComparable(int k, E x) {
-        Comparable<? super E> key = (Comparable<? super E>) x;
-        while (k > 0) {
-            int parent = (k - 1) >>> 1;
-            Object e = queue[parent];
-            if (key.compareTo((E) e) >= 0)
-                break;
-            queue[k] = e;
-            k = parent;
-        }
-        queue[k] = key;
-    }
-
-    @SuppressWarnings("unchecked")
-    private void siftUpUsingComparator(int k, E x) {
-        while (k > 0) {
-            int parent = (k - 1) >>> 1;
-            Object e = queue[parent];
-            if (comparator.compare(x, (E) e) >= 0)
-                break;
-            queue[k] = e;
-            k = parent;
-        }
-        queue[k] = x;
-    }
-
-    /**
-     * Inserts item x at position k, maintaining heap invariant by
-     * demoting x down the tree repeatedly until it is less than or
-     * equal to its children or is a leaf.
-     *
-     * @param k the position to fill
-     * @param x the item to insert
-     */
-    private void siftDown(int k, E x) {
-        if (comparator != null)
-            siftDownUsingComparator(k, x);
-        else
-            siftDownComparable(k, x);
-    }
-
-    @SuppressWarnings("unchecked")
-    private void siftDownComparable(int k, E x) {
-        Comparable<? super E> key = (Comparable<? super E>)x;
-        int half = size >>> 1;        // loop while a non-leaf
-        while (k < half) {
-            int child = (k << 1) + 1; // assume left child is least
-            Object c = queue[child];
-            int right = child + 1;
-            if (right < size &&
-                ((Comparable<? super E>) c).compareTo((E) queue[right]) > 0)
-                c = queue[child = right];
-            if (key.compareTo((E) c) <= 0)
-                break;
-            queue[k] = c;
-            k = child;
-        }
-        queue[k] = key;
-    }
-
-    @SuppressWarnings("unchecked")
-    private void siftDownUsingComparator(int k, E x) {
-        int half = size >>> 1;
-        while (k < half) {
-            int child = (k << 1) + 1;
-            Object c = queue[child];
-            int right = child + 1;
-            if (right < size &&
-                comparator.compare((E) c, (E) queue[right]) > 0)
-                c = queue[child = right];
-            if (comparator.compare(x, (E) c) <= 0)
-                break;
-            queue[k] = c;
-            k = child;
-        }
-        queue[k] = x;
-    }
-
-    /**
-     * Establishes the heap invariant (described above) in the entire tree,
-     * assuming nothing about the order of the elements prior to the call.
-     */
-    @SuppressWarnings("unchecked")
-    private void heapify() {
-        for (int i = (size >>> 1) - 1; i >= 0; i--)
-            siftDown(i, (E) queue[i]);
-    }
-
-    /**
-     * Returns the comparator used to order the elements in this
-     * queue, or {@code null} if this queue is sorted according to
-     * the {@linkplain Comparable natural ordering} of its elements.
-     *
-     * @return the comparator used to order this queue, or
-     *         {@code null} if this queue is sorted according to the
-     *         natural ordering of its elements
-     */
-    public Comparator<? super E> comparator() {
-        return comparator;
-    }
-}
\ No newline at end of file
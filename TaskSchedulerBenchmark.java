@@ -0,0 +1,329 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.Random;
+
+/** Class timing the parts of TaskScheduler on a generated task file.
+ *
+ *  Usage: java TaskSchedulerBenchmark [n]
+ *  where n is the number of tasks (10,000,000 by default). The legacy path needs
+ *  a large heap at that size, e.g. -Xmx8g.
+ *
+ *  The benchmarks of readFile, isFormat and addStrArrToHeap, of PriorityQueue and of
+ *  the whole scheduler() are JMH benchmarks in jmh/benchmarks, built by the jmh
+ *  profile of pom.xml; they use writeTasks, offerPoll and the heaps of this class.
+ *
+ *  Usage: java TaskSchedulerBenchmark -submit [n]
+ *  measures how many tasks per second 1, 2, 4 and up to 64 producer threads get into
+ *  an OnlineScheduler, through a SubmissionQueue and through one lock around the
+ *  scheduler, n tasks in all (4,000,000 by default).
+ */
+public class TaskSchedulerBenchmark {
+	private static final int ROUNDS = 3;		//the number of timed rounds of each path
+	static volatile Object sink;		//keeps the results of the benchmarks alive
+
+	public static void main(String[] args) throws Exception{
+		if(args.length > 0 && args[0].equals("-submit")){
+			int n = args.length > 1 ? (int) Double.parseDouble(args[1]) : 4000000;
+			for(int producers = 1; producers <= 64; producers <<= 1){
+				benchSubmit(n, producers, true);
+				benchSubmit(n, producers, false);
+			}
+			return;
+		}
+		int n = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+		File file = File.createTempFile("tasks", ".txt");
+		file.deleteOnExit();
+		writeTasks(file, n);
+		System.out.printf("%d tasks, %d bytes%n", n, file.length());
+
+		benchParse(file);
+		benchTaskSetFile(file);
+		benchLoad(n);
+		benchWrite(TaskScheduler.readTaskSet(file.getPath()), "file order");
+		benchWrite(randomTasks(n, 42), "random order");
+		benchRepair(n);
+	}
+
+	/* offers the tasks to the empty heap, then polls them all, and returns the last one*/
+	static Task offerPoll(Task[] tasks, PriorityQueue<Task> heap){
+		for(Task task : tasks)
+			heap.offer(task);
+		Task last = null;
+		while(heap.size() > 0)
+			last = heap.poll();
+		return last;
+	}
+
+	/** Times reading, validating and loading the tasks of the file.
+	 */
+	static void benchParse(File file) throws Exception{
+		for(int round = 0; round < ROUNDS; ++round){
+			long start = System.nanoTime();
+			String fileStrArr[] = TaskScheduler.readFile(null, file.getPath());
+			TaskScheduler.isFormat(fileStrArr, file.getPath());
+			PriorityQueue<Task> heap = TaskScheduler.addStrArrToHeap(fileStrArr, releaseHeap());
+			report("readFile + isFormat + addStrArrToHeap", heap.size(), start);
+			fileStrArr = null;
+			heap = null;
+
+			start = System.nanoTime();
+			heap = TaskScheduler.readTasks(file.getPath(), releaseHeap());
+			report("readTasks", heap.size(), start);
+		}
+	}
+
+	/** Times loading the tasks of the file into a task set by parsing the text, from
+	 *  the task set file it is converted to, and by parsing the text on 1, 2, 4 and up
+	 *  to as many threads as there are cores.
+	 */
+	static void benchTaskSetFile(File file) throws Exception{
+		File binary = File.createTempFile("tasks", ".tsk");
+		binary.deleteOnExit();
+		TaskSetFile.write(TaskScheduler.readTaskSet(file.getPath()), binary.toPath());
+		for(int round = 0; round < ROUNDS; ++round){
+			long start = System.nanoTime();
+			TaskSet tasks = TaskScheduler.readTaskSet(file.getPath());
+			report("readTaskSet", tasks.size(), start);
+			tasks = null;
+
+			start = System.nanoTime();
+			tasks = TaskSetFile.read(binary.toPath());
+			report("TaskSetFile.read", tasks.size(), start);
+			tasks = null;
+
+			for(int threads = 1; threads <= Runtime.getRuntime().availableProcessors(); threads <<= 1){
+				start = System.nanoTime();
+				tasks = ParallelTaskReader.read(file.getPath(), threads);
+				report("ParallelTaskReader.read on " + threads + " threads", tasks.size(), start);
+				tasks = null;
+			}
+		}
+	}
+
+	/** Times loading heap1 with n tasks of random release times one by one,
+	 *  in bulk with heapify, and by radix sorting them.
+	 */
+	static void benchLoad(int n){
+		TaskSet tasks = randomTasks(n, 42);
+		for(int round = 0; round < ROUNDS; ++round){
+			long start = System.nanoTime();
+			IntHeap heap = new IntHeap(n, tasks.relTimes());
+			for(int i = 0; i < n; ++i)
+				heap.offer(i);
+			report("IntHeap.offer one by one", heap.size(), start);
+
+			start = System.nanoTime();
+			heap = new IntHeap(n, tasks.relTimes());
+			heap.addRange(n);
+			report("IntHeap.addRange (heapify)", heap.size(), start);
+
+			start = System.nanoTime();
+			int sorted[] = tasks.sortByRelTime();
+			report("TaskSet.sortByRelTime (radix)", sorted.length, start);
+
+			for(Engine engine : Engine.values()){
+				start = System.nanoTime();
+				Schedule schedule = TaskScheduler.schedule(tasks, 16, engine);
+				report("schedule " + engine, schedule.size(), start);
+			}
+			for(HeapKind kind : HeapKind.values()){
+				start = System.nanoTime();
+				Schedule schedule = TaskScheduler.schedule(tasks, 16, Engine.HEAP, kind, null);
+				report("schedule HEAP " + kind, schedule.size(), start);
+			}
+		}
+	}
+
+	/** Times writing the schedule of the tasks with ScheduleWriter. When the tasks
+	 *  are not stored in about the order they run, as with randomTasks, most of
+	 *  the time goes to cache misses on the names.
+	 */
+	static void benchWrite(TaskSet tasks, String order) throws IOException{
+		Schedule schedule = TaskScheduler.schedule(tasks, 16);
+		File file = File.createTempFile("schedule", ".txt");
+		file.deleteOnExit();
+		for(int round = 0; round < ROUNDS; ++round){
+			long start = System.nanoTime();
+			ScheduleWriter.write(schedule, file.toPath());
+			long nanos = System.nanoTime() - start;
+			report("ScheduleWriter.write, " + order, schedule.size(), start);
+			System.out.printf("%-40s %10d bytes %8.1f MB/s%n", "", file.length(), file.length() / 1e6 / (nanos / 1e9));
+		}
+	}
+
+	/** Times scheduling n random tasks on 16 cores from scratch against repairing
+	 *  their schedule after 10 of them change.
+	 */
+	static void benchRepair(int n){
+		TaskSet tasks = randomTasks(n, 42);
+		Random random = new Random(7);
+		long start = System.nanoTime();
+		IncrementalScheduler scheduler = new IncrementalScheduler(tasks, 16);
+		report("IncrementalScheduler, first schedule", scheduler.getSchedule().size(), start);
+		for(int round = 0; round < ROUNDS; ++round){
+			start = System.nanoTime();
+			sink = TaskScheduler.schedule(tasks, 16);
+			report("TaskScheduler.schedule", tasks.size(), start);
+
+			for(int change = 0; change < 10; ++change){
+				int i = random.nextInt(n);
+				long relTime = tasks.getRelTime(i) + random.nextInt(3);
+				scheduler.update(i, relTime, relTime + 1 + random.nextInt(8));
+			}
+			start = System.nanoTime();
+			ScheduleView schedule = scheduler.repair();
+			report("IncrementalScheduler.repair, 10 changes", schedule.size(), start);
+		}
+	}
+
+	/** Times n tasks submitted by the given number of producer threads to an OnlineScheduler
+	 *  on 64 cores, which runs on the calling thread, through a SubmissionQueue or through
+	 *  one lock. Producer p submits the tasks p, p + producers, ... released 32 per time
+	 *  unit, so the scheduler keeps up with them.
+	 */
+	static void benchSubmit(int n, int producers, boolean queued) throws Exception{
+		int m = 64;
+		long counts[] = new long[1];
+		OnlineScheduler scheduler = new OnlineScheduler(m, new ScheduleSink(){
+			public void run(String name, long start, int core){
+				++counts[0];
+			}
+			public void missed(String name, long relTime, long deadline){
+			}
+		});
+		SubmissionQueue queue = new SubmissionQueue();
+		long lastRelTimes[] = new long[producers];		//written under the lock when not queued
+		boolean done[] = new boolean[producers];
+		Thread threads[] = new Thread[producers];
+		for(int p = 0; p < producers; ++p){
+			int producer = p;
+			SubmissionQueue.Producer ring = queued ? queue.register() : null;
+			threads[p] = new Thread(() -> {
+				String name = "task" + producer;
+				for(int i = producer; i < n; i += producers){
+					long relTime = i / 32;
+					if(queued){
+						ring.submit(name, relTime, relTime + 8);
+					}
+					else{
+						synchronized(scheduler){
+							try{
+								scheduler.submit(name, relTime, relTime + 8);
+							}
+							catch(IOException ioException){
+								throw new IllegalStateException(ioException);
+							}
+							lastRelTimes[producer] = relTime;
+						}
+					}
+				}
+				if(queued){
+					ring.close();
+				}
+				else{
+					synchronized(scheduler){
+						done[producer] = true;
+					}
+				}
+			});
+		}
+
+		long start = System.nanoTime();
+		for(Thread thread : threads)
+			thread.start();
+		if(queued){
+			while(queue.step(scheduler))
+				if(queue.drainTo(scheduler) == 0)
+					Thread.yield();
+		}
+		else{
+			for(boolean running = true; running; Thread.yield()){
+				synchronized(scheduler){
+					long time = Long.MAX_VALUE;
+					for(int p = 0; p < producers; ++p)
+						if(!done[p])
+							time = Math.min(time, lastRelTimes[p]);
+					if(time == Long.MAX_VALUE){
+						scheduler.finish();
+						running = false;
+					}
+					else if(time > scheduler.getTime()){
+						scheduler.advanceTo(time);
+					}
+				}
+			}
+		}
+		long nanos = System.nanoTime() - start;
+		for(Thread thread : threads)
+			thread.join();
+		System.out.printf("%-40s %10d tasks %8.1f ms %8.2f M tasks/s%n",
+				(queued ? "SubmissionQueue, " : "one lock, ") + producers + " producers",
+				counts[0], nanos / 1e6, counts[0] / (nanos / 1e3));
+	}
+
+	/* returns n tasks released uniformly over n/8 time units, with windows of 1 to 8 units*/
+	static TaskSet randomTasks(int n, long seed){
+		Random random = new Random(seed);
+		TaskSet tasks = new TaskSet(n);
+		long horizon = Math.max(1, n / 8);
+		for(int i = 0; i < n; ++i){
+			long relTime = (long) (random.nextDouble() * horizon);
+			tasks.add("task" + i, relTime, relTime + 1 + random.nextInt(8));
+		}
+		return tasks;
+	}
+
+	/* returns an empty heap ordered by release time*/
+	static PriorityQueue<Task> releaseHeap(){
+		return new PriorityQueue<Task>(new Comparator<Task>(){
+			public int compare(Task t1, Task t2){
+				return Long.compare(t1.getRelTime(), t2.getRelTime());
+			}
+		});
+	}
+
+	/* returns an empty heap ordered by deadline*/
+	static PriorityQueue<Task> deadlineHeap(){
+		return new PriorityQueue<Task>(new Comparator<Task>(){
+			public int compare(Task t1, Task t2){
+				return Long.compare(t1.getDeadline(), t2.getDeadline());
+			}
+		});
+	}
+
+	/** Writes n tasks with m tasks released at each time unit and deadlines 1 to 7
+	 *  units later, which EDF runs as soon as they are released on m cores. If the
+	 *  set is to be infeasible, the tasks released halfway are all due one unit
+	 *  later and one more task is released with them.
+	 */
+	static void writeTasks(File file, int n, int m, boolean feasible) throws IOException{
+		long overloaded = feasible ? -1 : (n / m) / 2;
+		try(BufferedWriter writer = new BufferedWriter(new FileWriter(file), 1 << 16)){
+			for(int i = 0; i < n; ++i){
+				long relTime = i / m;
+				long deadline = (relTime == overloaded) ? relTime + 1 : relTime + 1 + i % 7;
+				writer.write("task" + i + " " + relTime + " " + deadline + "\n");
+			}
+			if(!feasible)
+				writer.write("extra " + overloaded + " " + (overloaded + 1) + "\n");
+		}
+	}
+
+	/* writes n tasks with ten tasks released at each time unit*/
+	static void writeTasks(File file, int n) throws IOException{
+		try(BufferedWriter writer = new BufferedWriter(new FileWriter(file), 1 << 16)){
+			for(int i = 0; i < n; ++i){
+				int relTime = i / 10;
+				writer.write("task" + i + " " + relTime + " " + (relTime + 1 + i % 7) + (i % 5 == 4 ? "\n" : " "));
+			}
+		}
+	}
+
+	/* prints the time taken since start*/
+	static void report(String name, int size, long start){
+		System.out.printf("%-40s %10d tasks %8.1f ms%n", name, size, (System.nanoTime() - start) / 1e6);
+	}
+}
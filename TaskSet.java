@@ -0,0 +1,389 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/** Class storing a set of tasks column by column.
+ *
+ *  Task i is identified by its index. Release times and deadlines are kept in two
+ *  long arrays, and the names are kept back to back in one shared byte arena, name i
+ *  being the bytes from nameStart[i] to nameStart[i+1]. There is no object per task,
+ *  so a task costs 20 bytes plus the bytes of its name.
+ *
+ *  While tasks are added, it also counts in passing the tasks released before the
+ *  task added before them, and the tasks in each class of window length d - r by
+ *  bit length, from which TaskScheduler picks an engine. A task set made from its
+ *  columns, or changed by set, counts them in one scan when they are next asked for.
+ */
+class TaskSet {
+	private static final int DEFAULT_INITIAL_CAPACITY = 16;
+	static final int WINDOW_CLASSES = 65;		//the classes of window length, by bit length from 0 to 64
+
+	private int size = 0;		//the number of tasks
+	private long[] relTimes;		//the release time of each task
+	private long[] deadlines;		//the deadline of each task
+	private int[] nameStart;		//the offset of each name in the arena, plus the end of the last name
+	private byte[] names;		//the arena of the names
+	private long[] execTimes;		//the execution time of each task, or null while every task takes one time unit
+	private long minRelTime = Long.MAX_VALUE;		//the earliest release time
+	private long maxRelTime = Long.MIN_VALUE;		//the latest release time
+	private long minDeadline = Long.MAX_VALUE;		//the earliest deadline
+	private long maxDeadline = Long.MIN_VALUE;		//the latest deadline
+	private long relDescents = 0;		//the tasks released before the task before them
+	private long[] windowCounts = new long[WINDOW_CLASSES];		//the tasks in each class of window length, or null until counted
+
+	public TaskSet(){
+		this(DEFAULT_INITIAL_CAPACITY);
+	}
+
+	public TaskSet(int initialCapacity){
+		relTimes = new long[initialCapacity];
+		deadlines = new long[initialCapacity];
+		nameStart = new int[initialCapacity + 1];
+		names = new byte[initialCapacity * 8];
+	}
+
+	/** Creates a task set from its columns, such as the ones loaded by TaskSetFile.
+	 *  The arrays are used as they are, so they must hold exactly size tasks, and
+	 *  execTimes may be null when every task takes one time unit.
+	 */
+	TaskSet(long[] relTimes, long[] deadlines, long[] execTimes, int[] nameStart, byte[] names,
+			long minRelTime, long maxRelTime, long minDeadline, long maxDeadline){
+		this.size = relTimes.length;
+		this.relTimes = relTimes;
+		this.deadlines = deadlines;
+		this.execTimes = execTimes;
+		this.nameStart = nameStart;
+		this.names = names;
+		this.minRelTime = minRelTime;
+		this.maxRelTime = maxRelTime;
+		this.minDeadline = minDeadline;
+		this.maxDeadline = maxDeadline;
+		this.windowCounts = null;
+	}
+
+	/** Adds a task whose name is the len bytes of name starting at off,
+	 *  and returns the index of the task.
+	 */
+	public int add(byte[] name, int off, int len, long r, long d){
+		if(size == relTimes.length){
+			int newCapacity = size + (size >> 1) + 1;
+			relTimes = Arrays.copyOf(relTimes, newCapacity);
+			deadlines = Arrays.copyOf(deadlines, newCapacity);
+			nameStart = Arrays.copyOf(nameStart, newCapacity + 1);
+		}
+		int start = nameStart[size];
+		if(start + len > names.length)
+			names = Arrays.copyOf(names, Math.max(start + len, names.length + (names.length >> 1)));
+		System.arraycopy(name, off, names, start, len);
+		relTimes[size] = r;
+		deadlines[size] = d;
+		if(execTimes != null){
+			if(execTimes.length < relTimes.length)
+				execTimes = Arrays.copyOf(execTimes, relTimes.length);
+			execTimes[size] = 1;
+		}
+		nameStart[size + 1] = start + len;
+		if(size > 0 && r < relTimes[size - 1])
+			++relDescents;
+		if(windowCounts != null)
+			++windowCounts[windowClass(r, d)];
+		minRelTime = Math.min(minRelTime, r);
+		maxRelTime = Math.max(maxRelTime, r);
+		minDeadline = Math.min(minDeadline, d);
+		maxDeadline = Math.max(maxDeadline, d);
+		return size++;
+	}
+
+	/** Adds a task which takes e time units, and returns the index of the task.
+	 */
+	public int add(byte[] name, int off, int len, long r, long d, long e){
+		if(execTimes == null){
+			if(e == 1)
+				return add(name, off, len, r, d);
+			execTimes = new long[relTimes.length];
+			Arrays.fill(execTimes, 0, size, 1);
+		}
+		int i = add(name, off, len, r, d);
+		if(execTimes.length < relTimes.length)
+			execTimes = Arrays.copyOf(execTimes, relTimes.length);
+		execTimes[i] = e;
+		return i;
+	}
+
+	/** Changes the release time and deadline of task i. The earliest and latest release
+	 *  times and deadlines only widen, so afterwards they are bounds of the task set.
+	 */
+	void set(int i, long r, long d){
+		relTimes[i] = r;
+		deadlines[i] = d;
+		minRelTime = Math.min(minRelTime, r);
+		maxRelTime = Math.max(maxRelTime, r);
+		minDeadline = Math.min(minDeadline, d);
+		maxDeadline = Math.max(maxDeadline, d);
+		windowCounts = null;
+	}
+
+	/* adds a task with the given name, release time and deadline*/
+	public int add(String n, long r, long d){
+		byte[] name = n.getBytes(StandardCharsets.US_ASCII);
+		return add(name, 0, name.length, r, d);
+	}
+
+	/** Shrinks the columns and the arena to the number of tasks.
+	 */
+	public void trimToSize(){
+		relTimes = Arrays.copyOf(relTimes, size);
+		deadlines = Arrays.copyOf(deadlines, size);
+		nameStart = Arrays.copyOf(nameStart, size + 1);
+		names = Arrays.copyOf(names, nameStart[size]);
+		if(execTimes != null)
+			execTimes = Arrays.copyOf(execTimes, size);
+	}
+
+	/** Returns a task set holding the tasks of the given sets one set after the other,
+	 *  so task i of parts[k] gets the index i plus the sizes of the sets before it.
+	 */
+	static TaskSet concat(TaskSet[] parts){
+		int size = 0;
+		long nameBytes = 0;
+		boolean execTimes = false;
+		for(TaskSet part : parts){
+			size += part.size;
+			nameBytes += part.nameStart[part.size];
+			execTimes |= part.execTimes != null;
+		}
+		if(size < 0 || nameBytes > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("the tasks do not fit in one task set");
+
+		TaskSet tasks = new TaskSet(new long[size], new long[size], execTimes ? new long[size] : null,
+				new int[size + 1], new byte[(int) nameBytes], Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE);
+		boolean counted = true;
+		long descents = 0;
+		long windowCounts[] = new long[WINDOW_CLASSES];
+		int at = 0;
+		for(TaskSet part : parts){
+			if(part.windowCounts == null){
+				counted = false;
+			}
+			else if(counted){
+				descents += part.relDescents;
+				if(at > 0 && part.size > 0 && part.relTimes[0] < tasks.relTimes[at - 1])
+					++descents;
+				for(int b = 0; b < WINDOW_CLASSES; ++b)
+					windowCounts[b] += part.windowCounts[b];
+			}
+			int base = tasks.nameStart[at];
+			System.arraycopy(part.relTimes, 0, tasks.relTimes, at, part.size);
+			System.arraycopy(part.deadlines, 0, tasks.deadlines, at, part.size);
+			if(part.execTimes != null)
+				System.arraycopy(part.execTimes, 0, tasks.execTimes, at, part.size);
+			else if(execTimes)
+				Arrays.fill(tasks.execTimes, at, at + part.size, 1);
+			System.arraycopy(part.names, 0, tasks.names, base, part.nameStart[part.size]);
+			for(int i = 1; i <= part.size; ++i)
+				tasks.nameStart[at + i] = base + part.nameStart[i];
+			tasks.minRelTime = Math.min(tasks.minRelTime, part.minRelTime);
+			tasks.maxRelTime = Math.max(tasks.maxRelTime, part.maxRelTime);
+			tasks.minDeadline = Math.min(tasks.minDeadline, part.minDeadline);
+			tasks.maxDeadline = Math.max(tasks.maxDeadline, part.maxDeadline);
+			at += part.size;
+		}
+		if(counted){
+			tasks.relDescents = descents;
+			tasks.windowCounts = windowCounts;
+		}
+		return tasks;
+	}
+
+	public int size(){
+		return size;
+	}
+
+	/* gets the earliest release time, Long.MAX_VALUE if the set is empty*/
+	public long getMinRelTime(){
+		return minRelTime;
+	}
+	/* gets the latest release time, Long.MIN_VALUE if the set is empty*/
+	public long getMaxRelTime(){
+		return maxRelTime;
+	}
+	/* gets the earliest deadline, Long.MAX_VALUE if the set is empty*/
+	public long getMinDeadline(){
+		return minDeadline;
+	}
+	/* gets the latest deadline, Long.MIN_VALUE if the set is empty*/
+	public long getMaxDeadline(){
+		return maxDeadline;
+	}
+
+	/* gets whether the tasks are in release order*/
+	public boolean isSortedByRelTime(){
+		countStats();
+		return relDescents == 0;
+	}
+	/* gets the number of tasks released before the task before them*/
+	public long getRelDescents(){
+		countStats();
+		return relDescents;
+	}
+	/* gets the number of tasks whose window d - r has bit length b, so lies in [2^(b-1), 2^b)*/
+	public long getWindowCount(int b){
+		countStats();
+		return windowCounts[b];
+	}
+
+	/** Returns the least window length 2^b - 1 which at least the fraction q of the
+	 *  tasks do not exceed, rounded up to the end of a class.
+	 */
+	public long windowQuantile(double q){
+		countStats();
+		long below = 0;
+		for(int b = 0; b < WINDOW_CLASSES; ++b){
+			below += windowCounts[b];
+			if(below > 0 && below >= q * size)
+				return (b == 64) ? Long.MAX_VALUE : (1L << b) - 1;
+		}
+		return 0;
+	}
+
+	/** Returns an upper bound of the sum of the window lengths, which is below the
+	 *  time span of the tasks when some time unit lies in no window.
+	 */
+	public double windowSum(){
+		countStats();
+		double sum = 0;
+		for(int b = 1; b < WINDOW_CLASSES; ++b)
+			sum += windowCounts[b] * Math.scalb(1.0, b);
+		return sum;
+	}
+
+	/* returns the class of the window length d - r, its bit length*/
+	private static int windowClass(long r, long d){
+		return 64 - Long.numberOfLeadingZeros(Math.max(0, d - r));
+	}
+
+	/* counts the release order and the window lengths, unless they are counted*/
+	private void countStats(){
+		if(windowCounts != null)
+			return;
+		long counts[] = new long[WINDOW_CLASSES];
+		long descents = 0;
+		for(int i = 0; i < size; ++i){
+			if(i > 0 && relTimes[i] < relTimes[i - 1])
+				++descents;
+			++counts[windowClass(relTimes[i], deadlines[i])];
+		}
+		relDescents = descents;
+		windowCounts = counts;
+	}
+
+	/* gets the name of task i*/
+	public String getName(int i){
+		return new String(names, nameStart[i], nameStart[i + 1] - nameStart[i], StandardCharsets.US_ASCII);
+	}
+	/* gets the number of bytes of the name of task i*/
+	public int nameLength(int i){
+		return nameStart[i + 1] - nameStart[i];
+	}
+	/* copies the bytes of the name of task i into dst at off, and returns the offset after them*/
+	public int copyName(int i, byte[] dst, int off){
+		int len = nameStart[i + 1] - nameStart[i];
+		System.arraycopy(names, nameStart[i], dst, off, len);
+		return off + len;
+	}
+	/* gets the release time of task i*/
+	public long getRelTime(int i){
+		return relTimes[i];
+	}
+	/* gets the deadline of task i*/
+	public long getDeadline(int i){
+		return deadlines[i];
+	}
+	/* gets the execution time of task i*/
+	public long getExecTime(int i){
+		return (execTimes == null) ? 1 : execTimes[i];
+	}
+
+	/** Returns the tasks sorted by release time, ties in index order.
+	 *
+	 *  It is an LSD radix sort on the release times minus the earliest one, one byte
+	 *  per pass, so it takes O(n) time for each significant byte of the time span.
+	 *  Tasks already in release order are returned in index order without a pass.
+	 */
+	public int[] sortByRelTime(){
+		return sortByRelTime(new int[size], new int[size], new long[size], new long[size], new int[257]);
+	}
+
+	/** Is sortByRelTime in the given arrays, which must hold at least size() entries,
+	 *  and 257 for count. Returns the one of sorted and buffer holding the tasks in
+	 *  its first size() entries.
+	 */
+	int[] sortByRelTime(int[] sorted, int[] buffer, long[] keys, long[] keyBuffer, int[] count){
+		for(int i = 0; i < size; ++i)
+			sorted[i] = i;
+		if(size < 2 || isSortedByRelTime())
+			return sorted;
+		long min = minRelTime;
+		long span = maxRelTime - minRelTime;
+		//the keys travel with the tasks, so each pass reads both arrays sequentially
+		for(int i = 0; i < size; ++i)
+			keys[i] = relTimes[i] - min;
+		for(int shift = 0; shift < 64 && (span >>> shift) != 0; shift += 8){
+			Arrays.fill(count, 0);
+			for(int i = 0; i < size; ++i)
+				++count[(int) ((keys[i] >>> shift) & 0xff) + 1];
+			for(int b = 0; b < 256; ++b)
+				count[b + 1] += count[b];
+			for(int i = 0; i < size; ++i){
+				int j = count[(int) ((keys[i] >>> shift) & 0xff)]++;
+				buffer[j] = sorted[i];
+				keyBuffer[j] = keys[i];
+			}
+			int swap[] = sorted;
+			sorted = buffer;
+			buffer = swap;
+			long keySwap[] = keys;
+			keys = keyBuffer;
+			keyBuffer = keySwap;
+		}
+		return sorted;
+	}
+
+	/** Returns the bytes held by the columns and the arena, as allocated.
+	 */
+	long memoryBytes(){
+		return 8L * relTimes.length + 8L * deadlines.length + ((execTimes == null) ? 0 : 8L * execTimes.length)
+				+ 4L * nameStart.length + names.length;
+	}
+
+	/** Returns the release time column. Only the first size() entries are tasks,
+	 *  and the array is replaced when the set grows.
+	 */
+	long[] relTimes(){
+		return relTimes;
+	}
+
+	/** Returns the deadline column. Only the first size() entries are tasks,
+	 *  and the array is replaced when the set grows.
+	 */
+	long[] deadlines(){
+		return deadlines;
+	}
+
+	/** Returns the execution time column, or null while every task takes one time unit.
+	 */
+	long[] execTimes(){
+		return execTimes;
+	}
+
+	/** Returns the offsets of the names in the arena; entry size() is the end of the last name.
+	 */
+	int[] nameStarts(){
+		return nameStart;
+	}
+
+	/** Returns the arena of the names. Only the first nameStarts()[size()] bytes are names.
+	 */
+	byte[] names(){
+		return names;
+	}
+}
@@ -0,0 +1,283 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/** Class reading and writing task sets in a binary file, so that a task file which
+ *  is scheduled many times is parsed only once.
+ *
+ *  The file is a 64-byte header followed by the columns of the task set, all in
+ *  little-endian byte order:
+ *
+ *   offset  0  the magic bytes 0x89 'T' 'S' 'K', which no task file starts with
+ *           4  the version of the format, an int
+ *           8  the number of tasks n, a long
+ *          16  the flags, an int: FLAG_EXEC_TIMES if the execution time column is present
+ *          20  reserved, an int
+ *          24  the earliest and latest release times and deadlines, four longs
+ *          56  the number of bytes of the names, a long
+ *          64  the release times, then the deadlines, then the execution times if
+ *              present, each n longs; then the n+1 name offsets as ints; then the names
+ *
+ *  The reader maps the file and copies each column into its array in one bulk
+ *  transfer, without parsing the tasks one by one. A single sweep over the columns
+ *  then checks what TaskReader would have checked and recomputes the earliest and
+ *  latest times rather than trusting the header, so a corrupt file is rejected
+ *  instead of being scheduled wrongly.
+ */
+class TaskSetFile {
+	static final int VERSION = 1;		//the version of the format written
+	static final int FLAG_EXEC_TIMES = 1;		//the execution time column is present
+	private static final byte[] MAGIC = {(byte) 0x89, 'T', 'S', 'K'};		//the first bytes of the file
+	private static final int HEADER_SIZE = 64;		//the bytes before the columns
+	private static final int CHUNK_SIZE = 1 << 30;		//bytes mapped or written at a time
+
+	/** Returns whether the given file starts with the magic bytes of a task set file.
+	 */
+	static boolean isTaskSetFile(Path file) throws IOException{
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+			ByteBuffer magic = ByteBuffer.allocate(MAGIC.length);
+			while(magic.hasRemaining() && channel.read(magic) >= 0)
+				;
+			return !magic.hasRemaining() && Arrays.equals(magic.array(), MAGIC);
+		}
+	}
+
+	/** Loads the task set of the given file.
+	 *
+	 *  @throws IOException if the file cannot be read, or it is not a task set file of
+	 *  this version, or its length does not match its header, or a task is not one
+	 *  TaskReader would accept
+	 */
+	static TaskSet read(Path file) throws IOException{
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			while(header.hasRemaining() && channel.read(header) >= 0)
+				;
+			header.flip();
+			if(header.remaining() < HEADER_SIZE)
+				throw new IOException(file + " is not a task set file");
+			byte[] magic = new byte[MAGIC.length];
+			header.get(magic);
+			if(!Arrays.equals(magic, MAGIC))
+				throw new IOException(file + " is not a task set file");
+			int version = header.getInt();
+			if(version != VERSION)
+				throw new IOException(file + " is a task set file of version " + version + ", not " + VERSION);
+			long n = header.getLong();
+			int flags = header.getInt();
+			header.getInt();
+			header.position(header.position() + 32);		//the times, recomputed by check
+			long namesLength = header.getLong();
+			int columns = ((flags & FLAG_EXEC_TIMES) != 0) ? 3 : 2;
+			//a task set holds at most Integer.MAX_VALUE - 1 tasks and name bytes
+			if(n < 0 || n >= Integer.MAX_VALUE || namesLength < 0 || namesLength >= Integer.MAX_VALUE
+					|| channel.size() != HEADER_SIZE + n * (8 * columns + 4) + 4 + namesLength)
+				throw new IOException(file + " does not match its header");
+
+			long position = HEADER_SIZE;
+			long relTimes[] = new long[(int) n];
+			position = readLongs(channel, position, relTimes);
+			long deadlines[] = new long[(int) n];
+			position = readLongs(channel, position, deadlines);
+			long execTimes[] = null;
+			if(columns == 3){
+				execTimes = new long[(int) n];
+				position = readLongs(channel, position, execTimes);
+			}
+			int nameStart[] = new int[(int) n + 1];
+			position = readInts(channel, position, nameStart);
+			byte names[] = new byte[(int) namesLength];
+			readBytes(channel, position, names);
+			if(nameStart[0] != 0 || nameStart[(int) n] != namesLength)
+				throw new IOException(file + " has a corrupt name table");
+			long bounds[] = check(file, relTimes, deadlines, execTimes, nameStart);
+			return new TaskSet(relTimes, deadlines, execTimes, nameStart, names, bounds[0], bounds[1], bounds[2], bounds[3]);
+		}
+	}
+
+	/** Checks that every task has a non-negative release time, a later deadline, a positive
+	 *  execution time and a name of at least one byte, and returns the earliest and latest
+	 *  release times and deadlines of the tasks.
+	 *
+	 *  @throws IOException saying the file is corrupt otherwise
+	 */
+	private static long[] check(Path file, long[] relTimes, long[] deadlines, long[] execTimes, int[] nameStart)
+			throws IOException{
+		long minR = Long.MAX_VALUE, maxR = Long.MIN_VALUE, minD = Long.MAX_VALUE, maxD = Long.MIN_VALUE;
+		for(int i = 0; i < relTimes.length; ++i){
+			long r = relTimes[i];
+			long d = deadlines[i];
+			if(r < 0 || d <= r)
+				throw new IOException(file + " is corrupt: task " + i + " has release time " + r + " and deadline " + d);
+			if(execTimes != null && execTimes[i] < 1)
+				throw new IOException(file + " is corrupt: task " + i + " has execution time " + execTimes[i]);
+			if(nameStart[i + 1] <= nameStart[i])
+				throw new IOException(file + " is corrupt: the name of task " + i + " is empty or overlaps the one before");
+			minR = Math.min(minR, r);
+			maxR = Math.max(maxR, r);
+			minD = Math.min(minD, d);
+			maxD = Math.max(maxD, d);
+		}
+		return new long[] {minR, maxR, minD, maxD};
+	}
+
+	/* copies the longs starting at position into a, and returns the position after them*/
+	private static long readLongs(FileChannel channel, long position, long[] a) throws IOException{
+		for(int i = 0; i < a.length; ){
+			int count = Math.min(a.length - i, CHUNK_SIZE / 8);
+			map(channel, position, 8L * count).asLongBuffer().get(a, i, count);
+			i += count;
+			position += 8L * count;
+		}
+		return position;
+	}
+
+	/* copies the ints starting at position into a, and returns the position after them*/
+	private static long readInts(FileChannel channel, long position, int[] a) throws IOException{
+		for(int i = 0; i < a.length; ){
+			int count = Math.min(a.length - i, CHUNK_SIZE / 4);
+			map(channel, position, 4L * count).asIntBuffer().get(a, i, count);
+			i += count;
+			position += 4L * count;
+		}
+		return position;
+	}
+
+	/* copies the bytes starting at position into a*/
+	private static void readBytes(FileChannel channel, long position, byte[] a) throws IOException{
+		for(int i = 0; i < a.length; ){
+			int count = Math.min(a.length - i, CHUNK_SIZE);
+			map(channel, position, count).get(a, i, count);
+			i += count;
+			position += count;
+		}
+	}
+
+	/* maps size bytes of the file starting at position*/
+	private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException{
+		return channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/** Writes the task set to the given file, replacing it atomically if it exists.
+	 */
+	static void write(TaskSet tasks, Path file) throws IOException{
+		Path temp = ScheduleWriter.tempFile(file);
+		try{
+			try(FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)){
+				int n = tasks.size();
+				ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+				buffer.put(MAGIC);
+				buffer.putInt(VERSION);
+				buffer.putLong(n);
+				buffer.putInt((tasks.execTimes() != null) ? FLAG_EXEC_TIMES : 0);
+				buffer.putInt(0);
+				buffer.putLong(tasks.getMinRelTime());
+				buffer.putLong(tasks.getMaxRelTime());
+				buffer.putLong(tasks.getMinDeadline());
+				buffer.putLong(tasks.getMaxDeadline());
+				buffer.putLong(tasks.nameStarts()[n]);
+				writeLongs(channel, buffer, tasks.relTimes(), n);
+				writeLongs(channel, buffer, tasks.deadlines(), n);
+				if(tasks.execTimes() != null)
+					writeLongs(channel, buffer, tasks.execTimes(), n);
+				int nameStart[] = tasks.nameStarts();
+				for(int i = 0; i <= n; ){
+					if(buffer.remaining() < 4)
+						flush(channel, buffer);
+					int count = Math.min(n + 1 - i, buffer.remaining() / 4);
+					buffer.asIntBuffer().put(nameStart, i, count);
+					buffer.position(buffer.position() + 4 * count);
+					i += count;
+				}
+				byte names[] = tasks.names();
+				for(int i = 0; i < nameStart[n]; ){
+					if(!buffer.hasRemaining())
+						flush(channel, buffer);
+					int count = Math.min(nameStart[n] - i, buffer.remaining());
+					buffer.put(names, i, count);
+					i += count;
+				}
+				flush(channel, buffer);
+				channel.force(true);
+			}
+			try{
+				Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			}
+			catch(AtomicMoveNotSupportedException atomicMoveException){
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally{
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/* appends the first n longs of a*/
+	private static void writeLongs(FileChannel channel, ByteBuffer buffer, long[] a, int n) throws IOException{
+		for(int i = 0; i < n; ){
+			if(buffer.remaining() < 8)
+				flush(channel, buffer);
+			int count = Math.min(n - i, buffer.remaining() / 8);
+			buffer.asLongBuffer().put(a, i, count);
+			buffer.position(buffer.position() + 8 * count);
+			i += count;
+		}
+	}
+
+	/* writes the buffered bytes to the channel*/
+	private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException{
+		buffer.flip();
+		while(buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+	/** Converts a task file to a task set file.
+	 *
+	 *  Usage: java TaskSetFile file1 file2
+	 *  where file1 is a task file and file2 the task set file written.
+	 */
+	public static void main(String[] args){
+		if(args.length != 2){
+			System.err.println("Usage: java TaskSetFile file1 file2");
+			System.exit(2);
+		}
+		TaskSet tasks;
+		try{
+			tasks = TaskScheduler.readTaskSet(args[0]);
+		}
+		catch(NoSuchFileException fileNotFoundException){
+			System.err.printf("%s does not exist.\n", args[0]);
+			System.exit(1);
+			return;
+		}
+		catch(TaskFormatException formatException){
+			System.out.printf("%s improperly formatted at line %d, column %d: %s.\n", args[0],
+					formatException.getLine(), formatException.getColumn(), formatException.getMessage());
+			System.exit(1);
+			return;
+		}
+		catch(IOException ioException){
+			System.out.printf("Erro reading from %s.\n", args[0]);
+			System.exit(1);
+			return;
+		}
+		try{
+			write(tasks, Paths.get(args[1]));
+			System.out.printf("%d tasks of %s written to %s.\n", tasks.size(), args[0], args[1]);
+		}
+		catch(IOException ioException){
+			System.out.printf("Erro writing to %s: %s.\n", args[1], ioException);
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,289 @@
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/** Class writing a synthetic task file from a seed, so that a load of any size can
+ *  be reproduced anywhere.
+ *
+ *  The tasks are generated one time unit at a time, and each task is given a slot
+ *  in the unit being generated before its window is drawn around the slot: with at
+ *  most m slots used in every unit, the slots are a schedule meeting every deadline,
+ *  so the task set is feasible on m cores by construction. The release distribution
+ *  decides how many slots of each unit are used, about utilization * m on average,
+ *  and the window distribution decides how far the window stretches on either side
+ *  of the slot. With utilization 1 and uniform releases every slot is used, so the
+ *  set is just feasible. To make it just infeasible, the unit reached halfway
+ *  through the tasks gets m + 1 tasks which are all due at its end.
+ *
+ *  The file is streamed through a fixed buffer, so the memory used does not depend
+ *  on the number of tasks; the tasks are in slot order, not release order.
+ *
+ *  Usage: java WorkloadGenerator -n tasks -m cores [-seed s] [-u utilization | -horizon units]
+ *         [-release uniform|bursty|zipf] [-window uniform|bursty|zipf] [-maxwindow w]
+ *         [-burst units] [-zipf exponent] [-infeasible] file
+ *  where file is - for the standard output. Numbers such as 1e9 are accepted.
+ */
+public class WorkloadGenerator {
+	private static final int BUFFER_SIZE = 1 << 20;		//bytes written to the channel at a time
+	private static final int MAX_LINE = 4 + 3 * 20 + 3;		//"task", three numbers, two spaces and a newline
+
+	private final long n;		//the number of tasks
+	private final int m;		//the number of cores
+	private final double utilization;		//the average fraction of the slots used
+	private final Distribution release;		//the distribution of the release times
+	private final Distribution window;		//the distribution of the window lengths
+	private final int maxWindow;		//the longest window
+	private final double burst;		//the average length of a burst
+	private final boolean infeasible;		//whether one unit is overloaded by one task
+	private final SplittableRandom random;		//the source of every random choice
+
+	private final double releaseZipf[];		//the cumulative probabilities of 1 to m releases in a unit
+	private final double windowZipf[];		//the cumulative probabilities of windows of 1 to maxWindow units
+	private final double releaseProbability;		//the probability that a unit has releases under ZIPF
+	private boolean inBurst = false;		//whether the current unit is in a burst under BURSTY
+	private long periodLeft = 0;		//the units left in the current burst or idle period
+
+	private final byte[] lines = new byte[BUFFER_SIZE];		//the encoded lines not yet written
+	private int length = 0;		//the number of bytes in lines
+	private long task = 0;		//the number of the next task
+
+	WorkloadGenerator(long seed, long n, int m, double utilization, Distribution release,
+			Distribution window, int maxWindow, double burst, double zipfExponent, boolean infeasible){
+		if(n < 0 || m < 1 || maxWindow < 1 || burst < 1 || !(utilization > 0 && utilization <= 1))
+			throw new IllegalArgumentException("needs n >= 0, m >= 1, maxwindow >= 1, burst >= 1 and 0 < u <= 1");
+		if(infeasible && n < m + 1)
+			throw new IllegalArgumentException("an infeasible set needs at least m + 1 tasks");
+		this.n = n;
+		this.m = m;
+		this.utilization = utilization;
+		this.release = release;
+		this.window = window;
+		this.maxWindow = maxWindow;
+		this.burst = burst;
+		this.infeasible = infeasible;
+		this.random = new SplittableRandom(seed);
+		releaseZipf = cumulativeZipf(m, zipfExponent);
+		windowZipf = (window == Distribution.ZIPF) ? cumulativeZipf(maxWindow, zipfExponent) : null;
+		//a unit with releases has mean releases zipfMean, so units have releases with
+		//the probability giving utilization * m on average, if it can
+		double zipfMean = 0;
+		for(int k = 1; k <= m; ++k)
+			zipfMean += k * (releaseZipf[k - 1] - ((k > 1) ? releaseZipf[k - 2] : 0));
+		releaseProbability = Math.min(1, utilization * m / zipfMean);
+	}
+
+	/** Writes the tasks to the channel and returns the number of time units they span.
+	 */
+	long generate(WritableByteChannel channel) throws IOException{
+		long written = 0;
+		long t = 0;
+		boolean overloaded = !infeasible;
+		for(; written < n; ++t){
+			if(!overloaded && written >= (n - (m + 1)) / 2){
+				for(int k = 0; k <= m; ++k)
+					writeTask(channel, t, t + 1);
+				written += m + 1;
+				overloaded = true;
+				continue;
+			}
+			//the tasks of the overloaded unit are kept out of the others
+			long c = Math.min(load(t), n - written - (overloaded ? 0 : m + 1));
+			for(long k = 0; k < c; ++k){
+				long span = windowLength();
+				long slack = random.nextLong(span);		//the units of the window before the slot
+				writeTask(channel, Math.max(0, t - slack), t - slack + span);
+			}
+			written += c;
+		}
+		flush(channel);
+		return t;
+	}
+
+	/* returns the number of slots used in unit t*/
+	private long load(long t){
+		double rate = utilization * m;
+		switch(release){
+		case UNIFORM:
+			return (long) ((t + 1) * rate) - (long) (t * rate);
+		case BURSTY:
+			while(periodLeft == 0){
+				inBurst = !inBurst;
+				//the idle periods are long enough to bring the average down to rate
+				periodLeft = inBurst ? 1 + geometric(burst - 1) : geometric(burst * (1 - utilization) / utilization);
+			}
+			--periodLeft;
+			return inBurst ? m : 0;
+		default:
+			return (random.nextDouble() < releaseProbability) ? zipf(releaseZipf) : 0;
+		}
+	}
+
+	/* returns the length of the window of a task*/
+	private long windowLength(){
+		switch(window){
+		case UNIFORM:
+			return 1 + random.nextInt(maxWindow);
+		case BURSTY:
+			return (random.nextInt(10) == 0) ? maxWindow : 1 + random.nextInt(Math.max(1, maxWindow / 8));
+		default:
+			return zipf(windowZipf);
+		}
+	}
+
+	/* returns a number of failures before a success, with the given mean*/
+	private long geometric(double mean){
+		if(mean <= 0)
+			return 0;
+		return (long) (Math.log(1 - random.nextDouble()) / Math.log(mean / (1 + mean)));
+	}
+
+	/* returns a number in [1, cumulative.length] drawn from the cumulative probabilities*/
+	private int zipf(double[] cumulative){
+		double u = random.nextDouble();
+		int low = 0;
+		int high = cumulative.length - 1;
+		while(low < high){
+			int mid = (low + high) >>> 1;
+			if(cumulative[mid] <= u)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low + 1;
+	}
+
+	/* returns the cumulative probabilities of 1 to k under Zipf's law with the given exponent*/
+	private static double[] cumulativeZipf(int k, double exponent){
+		double cumulative[] = new double[k];
+		double sum = 0;
+		for(int i = 1; i <= k; ++i)
+			cumulative[i - 1] = sum += Math.pow(i, -exponent);
+		for(int i = 0; i < k; ++i)
+			cumulative[i] /= sum;
+		cumulative[k - 1] = 1;
+		return cumulative;
+	}
+
+	/* appends the line of the next task*/
+	private void writeTask(WritableByteChannel channel, long relTime, long deadline) throws IOException{
+		if(lines.length - length < MAX_LINE)
+			flush(channel);
+		lines[length++] = 't';
+		lines[length++] = 'a';
+		lines[length++] = 's';
+		lines[length++] = 'k';
+		putNumber(task++);
+		lines[length++] = ' ';
+		putNumber(relTime);
+		lines[length++] = ' ';
+		putNumber(deadline);
+		lines[length++] = '\n';
+	}
+
+	/* encodes a non-negative number in decimal*/
+	private void putNumber(long value){
+		int digits = 1;
+		for(long limit = 10; digits < 19 && value >= limit; limit *= 10)
+			++digits;
+		int k = length += digits;
+		do{
+			lines[--k] = (byte) ('0' + value % 10);
+			value /= 10;
+		}while(value != 0);
+	}
+
+	/* writes the encoded lines to the channel*/
+	private void flush(WritableByteChannel channel) throws IOException{
+		ByteBuffer buffer = ByteBuffer.wrap(lines, 0, length);
+		while(buffer.hasRemaining())
+			channel.write(buffer);
+		length = 0;
+	}
+
+	public static void main(String[] args) throws IOException{
+		long seed = 1;
+		long n = -1;
+		int m = -1;
+		double utilization = 0.9;
+		long horizon = 0;
+		Distribution release = Distribution.UNIFORM;
+		Distribution window = Distribution.UNIFORM;
+		int maxWindow = 8;
+		double burst = 16;
+		double zipfExponent = 1.1;
+		boolean infeasible = false;
+		String file = null;
+		try{
+			for(int i = 0; i < args.length; ++i){
+				switch(args[i]){
+				case "-seed": seed = Long.parseLong(args[++i]); break;
+				case "-n": n = (long) Double.parseDouble(args[++i]); break;
+				case "-m": m = (int) Double.parseDouble(args[++i]); break;
+				case "-u": utilization = Double.parseDouble(args[++i]); break;
+				case "-horizon": horizon = (long) Double.parseDouble(args[++i]); break;
+				case "-release": release = Distribution.valueOf(args[++i].toUpperCase(Locale.ROOT)); break;
+				case "-window": window = Distribution.valueOf(args[++i].toUpperCase(Locale.ROOT)); break;
+				case "-maxwindow": maxWindow = (int) Double.parseDouble(args[++i]); break;
+				case "-burst": burst = Double.parseDouble(args[++i]); break;
+				case "-zipf": zipfExponent = Double.parseDouble(args[++i]); break;
+				case "-infeasible": infeasible = true; break;
+				default:
+					if(args[i].startsWith("-") && !args[i].equals("-") || file != null)
+						throw new IllegalArgumentException("unknown argument " + args[i]);
+					file = args[i];
+				}
+			}
+			if(n < 0 || m < 1 || file == null)
+				throw new IllegalArgumentException("-n, -m and the file are required");
+			//a horizon sets the utilization filling it
+			if(horizon > 0)
+				utilization = (double) n / ((double) m * horizon);
+		}
+		catch(RuntimeException argumentException){
+			System.err.println(argumentException.getMessage());
+			System.err.println("Usage: java WorkloadGenerator -n tasks -m cores [-seed s] [-u utilization | -horizon units]");
+			System.err.println("       [-release uniform|bursty|zipf] [-window uniform|bursty|zipf] [-maxwindow w]");
+			System.err.println("       [-burst units] [-zipf exponent] [-infeasible] file");
+			System.exit(2);
+			return;
+		}
+
+		WorkloadGenerator generator;
+		try{
+			generator = new WorkloadGenerator(seed, n, m, utilization, release, window, maxWindow,
+					burst, zipfExponent, infeasible);
+		}
+		catch(IllegalArgumentException argumentException){
+			System.err.println(argumentException.getMessage());
+			System.exit(2);
+			return;
+		}
+		long start = System.nanoTime();
+		long units;
+		if(file.equals("-")){
+			WritableByteChannel channel = Channels.newChannel(new FileOutputStream(FileDescriptor.out));
+			units = generator.generate(channel);
+		}
+		else{
+			try(FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+				units = generator.generate(channel);
+			}
+			catch(IOException ioException){
+				System.out.printf("Erro writing to %s: %s.\n", file, ioException);
+				System.exit(1);
+				return;
+			}
+		}
+		System.err.printf("%d %s tasks over %d time units on %d cores written in %.1f s (seed %d).\n",
+				n, infeasible ? "infeasible" : "feasible", units, m, (System.nanoTime() - start) / 1e9, seed);
+	}
+}
@@ -0,0 +1,78 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+/** Class preparing the workloads of the JMH benchmarks in jmh/benchmarks.
+ *
+ *  JMH generates its code into the package of a benchmark, which cannot be the
+ *  default package, and a class of a named package cannot refer to the classes of
+ *  the default package, such as TaskScheduler. So the benchmarks get each workload
+ *  from here once, by reflection, as a Callable whose calls are then measured.
+ *
+ *  The task files are written to a temporary directory deleted on exit.
+ */
+public class Workloads {
+	private Workloads(){}
+
+	/* returns a task file of n tasks with ten tasks released at each time unit*/
+	private static File taskFile(int n) throws IOException{
+		File file = File.createTempFile("tasks" + n + "-", ".txt");
+		file.deleteOnExit();
+		TaskSchedulerBenchmark.writeTasks(file, n);
+		return file;
+	}
+
+	/* returns reading the lines of a task file of n tasks*/
+	public static Callable<Object> readFile(int n) throws IOException{
+		String path = taskFile(n).getPath();
+		return () -> TaskScheduler.readFile(null, path);
+	}
+
+	/* returns checking the format of the lines of a task file of n tasks*/
+	public static Callable<Object> isFormat(int n) throws IOException{
+		String path = taskFile(n).getPath();
+		String fileStrArr[] = TaskScheduler.readFile(null, path);
+		return () -> TaskScheduler.isFormat(fileStrArr, path);
+	}
+
+	/* returns loading the lines of a task file of n tasks into a heap ordered by release time*/
+	public static Callable<Object> addStrArrToHeap(int n) throws IOException{
+		String path = taskFile(n).getPath();
+		String fileStrArr[] = TaskScheduler.readFile(null, path);
+		return () -> TaskScheduler.addStrArrToHeap(fileStrArr, TaskSchedulerBenchmark.releaseHeap());
+	}
+
+	/** Returns offering the n tasks of a task file to an empty PriorityQueue with the
+	 *  release or the deadline comparator, then polling them all.
+	 */
+	public static Callable<Object> offerPoll(int n, String comparator) throws IOException{
+		String path = taskFile(n).getPath();
+		Task tasks[] = TaskScheduler.addStrArrToHeap(TaskScheduler.readFile(null, path),
+				TaskSchedulerBenchmark.releaseHeap()).toArray(new Task[0]);
+		switch(comparator){
+		case "release":
+			return () -> TaskSchedulerBenchmark.offerPoll(tasks, TaskSchedulerBenchmark.releaseHeap());
+		case "deadline":
+			return () -> TaskSchedulerBenchmark.offerPoll(tasks, TaskSchedulerBenchmark.deadlineHeap());
+		default:
+			throw new IllegalArgumentException("unknown comparator " + comparator);
+		}
+	}
+
+	/** Returns the whole scheduler() on a task file of n tasks, feasible or not on m
+	 *  cores, as written by TaskSchedulerBenchmark.writeTasks. scheduler() reports its
+	 *  result on the screen, which the benchmark silences.
+	 */
+	public static Callable<Object> scheduler(int n, int m, boolean feasible) throws IOException{
+		File input = File.createTempFile("tasks" + n + "m" + m + "-", ".txt");
+		input.deleteOnExit();
+		new File(input.getPath() + ".out.txt").deleteOnExit();
+		TaskSchedulerBenchmark.writeTasks(input, n, m, feasible);
+		String file1 = input.getPath();
+		String file2 = file1 + ".out";
+		return () -> {
+			TaskScheduler.scheduler(file1, file2, m);
+			return null;
+		};
+	}
+}
@@ -0,0 +1,58 @@
+package benchmarks;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Class benchmarking the three steps of the legacy parse of a task file of n tasks:
+ *  readFile, isFormat and addStrArrToHeap.
+ *
+ *  Larger files are given on the command line, e.g. -p n=1e7,1e8 -jvmArgs -Xmx16g.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParseBenchmark {
+	@Param({"1e3", "1e4", "1e5", "1e6"})
+	public String n;		//the number of tasks
+
+	private Callable<Object> readFile;		//reads the lines of the file
+	private Callable<Object> isFormat;		//checks the format of the lines
+	private Callable<Object> addStrArrToHeap;		//loads the lines into a heap
+
+	@Setup
+	public void setup() throws Exception{
+		readFile = Workload.of("readFile", Workload.tasks(n));
+		isFormat = Workload.of("isFormat", Workload.tasks(n));
+		addStrArrToHeap = Workload.of("addStrArrToHeap", Workload.tasks(n));
+	}
+
+	@Benchmark
+	public Object readFile() throws Exception{
+		return readFile.call();
+	}
+
+	@Benchmark
+	public Object isFormat() throws Exception{
+		return isFormat.call();
+	}
+
+	@Benchmark
+	public Object addStrArrToHeap() throws Exception{
+		return addStrArrToHeap.call();
+	}
+}
@@ -0,0 +1,45 @@
+package benchmarks;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Class benchmarking PriorityQueue: n tasks offered to an empty queue ordered by
+ *  the release or the deadline comparator, then all polled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PriorityQueueBenchmark {
+	@Param({"1e3", "1e4", "1e5", "1e6"})
+	public String n;		//the number of tasks
+
+	@Param({"release", "deadline"})
+	public String comparator;		//the order of the queue
+
+	private Callable<Object> offerPoll;		//offers and polls the tasks
+
+	@Setup
+	public void setup() throws Exception{
+		offerPoll = Workload.of("offerPoll", Workload.tasks(n), comparator);
+	}
+
+	@Benchmark
+	public Object offerPoll() throws Exception{
+		return offerPoll.call();
+	}
+}
@@ -0,0 +1,67 @@
+package benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Class benchmarking the whole scheduler(), from reading the task file to writing
+ *  the schedule, on n tasks and m cores, with a feasible and an infeasible task file.
+ *
+ *  scheduler() reports its result on System.out and System.err, which are silenced
+ *  during the trial so that the measured time is the scheduler's, not the console's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SchedulerBenchmark {
+	@Param({"1e3", "1e4", "1e5", "1e6"})
+	public String n;		//the number of tasks
+
+	@Param({"1", "4", "16", "64"})
+	public int m;		//the number of cores
+
+	@Param({"feasible", "infeasible"})
+	public String variant;		//whether the task file has a feasible schedule
+
+	private Callable<Object> scheduler;		//schedules the task file
+	private PrintStream out;		//System.out before the trial
+	private PrintStream err;		//System.err before the trial
+
+	@Setup
+	public void setup() throws Exception{
+		scheduler = Workload.of("scheduler", Workload.tasks(n), m, variant.equals("feasible"));
+		out = System.out;
+		err = System.err;
+		PrintStream none = new PrintStream(OutputStream.nullOutputStream());
+		System.setOut(none);
+		System.setErr(none);
+	}
+
+	@TearDown
+	public void tearDown(){
+		System.setOut(out);
+		System.setErr(err);
+	}
+
+	@Benchmark
+	public Object scheduler() throws Exception{
+		return scheduler.call();
+	}
+}
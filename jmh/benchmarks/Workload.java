@@ -0,0 +1,35 @@
+package benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+
+/** Class getting the workloads of the benchmarks from Workloads, which is in the
+ *  default package with the scheduler and can only be reached by reflection.
+ */
+final class Workload {
+	private Workload(){}
+
+	/** Returns the workload made by the method of Workloads with the given name from
+	 *  the given arguments.
+	 */
+	@SuppressWarnings("unchecked")
+	static Callable<Object> of(String name, Object... args) throws Exception{
+		for(Method method : Class.forName("Workloads").getMethods()){
+			if(method.getName().equals(name) && method.getParameterCount() == args.length){
+				try{
+					return (Callable<Object>) method.invoke(null, args);
+				}
+				catch(InvocationTargetException invocationException){
+					throw (Exception) invocationException.getCause();
+				}
+			}
+		}
+		throw new NoSuchMethodException("Workloads." + name);
+	}
+
+	/* parses a number of tasks such as 1e6*/
+	static int tasks(String n){
+		return (int) Double.parseDouble(n);
+	}
+}